@@ -0,0 +1,109 @@
+package benchmark;
+/**
+ * LockedMe.com - File Management Application
+ * Benchmarks for the FileManager listing and search hot paths at 1k, 100k
+ * and 1M directory entries. The directory is created once per trial.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import main.FileManager;
+import main.SearchMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileManagerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int entries;
+
+    private Path directory;
+    private FileManager fileManager;
+    private String hit;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("lockedme-bench-");
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(directory.resolve("file-" + i + ".txt"));
+        }
+        fileManager = new FileManager(directory.toString());
+        hit = "file-" + (entries / 2) + ".txt";
+
+        // Listings and search results print to the console; only the work is measured
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        System.setOut(console);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /** Lists the directory; getFileList itself is private */
+    @Benchmark
+    public int getFileList() {
+        return fileManager.getFileCount();
+    }
+
+    @Benchmark
+    public void displayFilesAscending() {
+        fileManager.displayFilesAscending();
+    }
+
+    @Benchmark
+    public boolean searchFileHit() {
+        return fileManager.searchFile(hit);
+    }
+
+    @Benchmark
+    public boolean searchFileMiss() {
+        return fileManager.searchFile("missing.txt");
+    }
+
+    @Benchmark
+    public List<String> searchFilesByPattern() {
+        return fileManager.searchFilesByPattern("file-99");
+    }
+
+    @Benchmark
+    public List<String> searchFilesGlob() {
+        return fileManager.searchFiles("file-99*.txt", SearchMode.GLOB);
+    }
+
+    @Benchmark
+    public List<String> searchFilesRegex() {
+        return fileManager.searchFiles("^file-99\\d*\\.txt$", SearchMode.REGEX);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+/**
+ * LockedMe.com - File Management Application
+ * Benchmarks for InputValidator: single names, sanitizing, and a bulk
+ * check of a 1M-name manifest with one name in ten invalid.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import main.InputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputValidatorBenchmark {
+
+    // Fields rather than literals, so the JIT cannot fold the input into the code
+    private String validName = "quarterly-report_2026.csv";
+    private String invalidName = "bad<name>.txt";
+    private String messyName = "  ..report<2026>?.txt  ";
+
+    private InputValidator validator;
+    private List<String> manifest;
+
+    @Setup
+    public void setUp() {
+        validator = new InputValidator();
+        manifest = new ArrayList<>();
+        for (int i = 0; i < 1_000_000; i++) {
+            manifest.add(i % 10 == 0 ? "bad<" + i + ">.txt" : "file-" + i + ".txt");
+        }
+    }
+
+    @Benchmark
+    public boolean isValidFileNameValid() {
+        return validator.isValidFileName(validName);
+    }
+
+    @Benchmark
+    public boolean isValidFileNameInvalid() {
+        return validator.isValidFileName(invalidName);
+    }
+
+    @Benchmark
+    public String sanitizeFileName() {
+        return validator.sanitizeFileName(messyName);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int validateFileNames() {
+        return validator.validateFileNames(manifest).getInvalidCount();
+    }
+}
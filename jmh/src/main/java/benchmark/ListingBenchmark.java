@@ -0,0 +1,76 @@
+package benchmark;
+/**
+ * LockedMe.com - File Management Application
+ * Compares the directory listing backends on a directory of 100k files
+ * plus a few subdirectories that every backend has to skip.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import main.ListingBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingBenchmark {
+
+    @Param({"100000"})
+    private int entries;
+
+    // Every backend when no value is given
+    @Param
+    private ListingBackend backend;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("lockedme-listing-");
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(directory.resolve("file-" + i + ".txt"));
+        }
+        for (int i = 0; i < 10; i++) {
+            Files.createDirectory(directory.resolve("dir-" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int scan() throws IOException {
+        int[] count = new int[1];
+        backend.scan(directory, (name, attributes) -> count[0]++);
+        if (count[0] != entries) {
+            throw new IllegalStateException(backend + " listed " + count[0] + " files, expected " + entries);
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,122 @@
+package benchmark;
+/**
+ * LockedMe.com - File Management Application
+ * Compares listing output through FrameRenderer with one System.out.println
+ * per line, the way listings were printed before, and measures the
+ * eight-line details frame a file lookup prints.
+ *
+ * Output goes to an auto-flushing PrintStream over a temp file, which
+ * flushes like the console does, so the cost of each write is included.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import main.FileManager;
+import main.FrameRenderer;
+import main.MenuHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+    @Param({"100000"})
+    private int lines;
+
+    private String[] fileNames;
+    private Path directory;
+    private FileManager fileManager;
+    private Path sinkFile;
+    private FileOutputStream file;
+    private PrintStream console;
+    private FrameRenderer renderer;
+    private MenuHandler menuHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fileNames = new String[lines];
+        for (int i = 0; i < lines; i++) {
+            fileNames[i] = "file-" + i + ".txt";
+        }
+
+        sinkFile = Files.createTempFile("lockedme-output-", ".txt");
+        file = new FileOutputStream(sinkFile.toFile());
+        console = System.out;
+        System.setOut(new PrintStream(file, true));
+
+        renderer = new FrameRenderer();
+        menuHandler = new MenuHandler();
+
+        directory = Files.createTempDirectory("lockedme-output-");
+        Files.createFile(directory.resolve("report.txt"));
+        fileManager = new FileManager(directory.toString());
+    }
+
+    /**
+     * Empties the sink file so repeated iterations do not fill the disk
+     */
+    @Setup(Level.Iteration)
+    public void rewind() throws IOException {
+        file.getChannel().truncate(0).position(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(console);
+        file.close();
+        Files.deleteIfExists(sinkFile);
+        Files.deleteIfExists(directory.resolve("report.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void listingPrintln() {
+        for (int i = 0; i < fileNames.length; i++) {
+            System.out.println((i + 1) + ". " + fileNames[i]);
+        }
+    }
+
+    @Benchmark
+    public void listingFrameRenderer() {
+        for (int i = 0; i < fileNames.length; i++) {
+            renderer.line(i + 1, fileNames[i]);
+        }
+        renderer.flush();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void displayFileOperationsHelp() {
+        menuHandler.displayFileOperationsHelp(Duration.ofDays(7));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean searchFileDetails() {
+        return fileManager.searchFile("report.txt");
+    }
+}
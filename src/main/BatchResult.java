@@ -0,0 +1,120 @@
+package main;
+
+/**
+ * BatchResult.java - Outcome Summary of a Bulk File Operation
+ * Records what happened to each name of an addFiles/deleteFiles call,
+ * in input order, together with counts per outcome. Outcomes are the
+ * same statuses the single-file try* methods of FileManager return.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import main.FileOperationResult.Status;
+
+public class BatchResult {
+
+    private final String[] fileNames;
+    private final Status[] outcomes;
+    private final String[] details;
+
+    BatchResult(String[] fileNames, Status[] outcomes, String[] details) {
+        this.fileNames = fileNames;
+        this.outcomes = outcomes;
+        this.details = details;
+    }
+
+    /**
+     * Gets the number of names in the batch
+     * @return Batch size
+     */
+    public int size() {
+        return fileNames.length;
+    }
+
+    /**
+     * Gets the name of an entry as it was passed in
+     * @param index Position in the batch
+     * @return File name
+     */
+    public String getFileName(int index) {
+        return fileNames[index];
+    }
+
+    /**
+     * Gets what happened to an entry
+     * @param index Position in the batch
+     * @return Outcome of the entry
+     */
+    public Status getOutcome(int index) {
+        return outcomes[index];
+    }
+
+    /**
+     * Gets the error detail for an entry that failed with an error
+     * @param index Position in the batch
+     * @return Detail message, or null if there is none
+     */
+    public String getDetail(int index) {
+        return details[index];
+    }
+
+    /**
+     * Counts the entries with a given outcome
+     * @param outcome Outcome to count
+     * @return Number of entries
+     */
+    public int getCount(Status outcome) {
+        int count = 0;
+        for (Status value : outcomes) {
+            if (value == outcome) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the count of every outcome that occurred
+     * @return Counts per outcome
+     */
+    public Map<Status, Integer> getCounts() {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status outcome : outcomes) {
+            counts.merge(outcome, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the number of entries that succeeded
+     * @return Success count
+     */
+    public int getSuccessCount() {
+        int count = 0;
+        for (Status outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the names of the entries that did not succeed
+     * @return Failed file names in input order
+     */
+    public List<String> getFailedFileNames() {
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            if (!outcomes[i].isSuccess()) {
+                failed.add(fileNames[i]);
+            }
+        }
+        return failed;
+    }
+}
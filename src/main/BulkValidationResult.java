@@ -0,0 +1,112 @@
+package main;
+
+/**
+ * BulkValidationResult.java - Outcome of Validating Many File Names
+ * Holds a compact result code and the offending character position for
+ * each name, in input order, together with counts per result.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class BulkValidationResult {
+
+    private static final ValidationResult[] RESULTS = ValidationResult.values();
+
+    private final String[] fileNames;
+    private final byte[] codes;
+    private final int[] positions;
+
+    BulkValidationResult(String[] fileNames, byte[] codes, int[] positions) {
+        this.fileNames = fileNames;
+        this.codes = codes;
+        this.positions = positions;
+    }
+
+    /**
+     * Gets the number of names validated
+     * @return Number of names
+     */
+    public int size() {
+        return fileNames.length;
+    }
+
+    public String getFileName(int index) {
+        return fileNames[index];
+    }
+
+    public ValidationResult getResult(int index) {
+        return RESULTS[codes[index]];
+    }
+
+    /**
+     * Gets where a name breaks its rule
+     * @param index Position in the input
+     * @return Index of the offending character in the untrimmed name, the
+     *         first character of a reserved name, or -1 for VALID and EMPTY
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Counts the names with a given result
+     * @param result Result to count
+     * @return Number of names
+     */
+    public int getCount(ValidationResult result) {
+        int count = 0;
+        for (byte code : codes) {
+            if (code == result.ordinal()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the count of every result that occurred
+     * @return Counts per result
+     */
+    public Map<ValidationResult, Integer> getCounts() {
+        int[] counts = new int[RESULTS.length];
+        for (byte code : codes) {
+            counts[code]++;
+        }
+
+        Map<ValidationResult, Integer> countsByResult = new EnumMap<>(ValidationResult.class);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                countsByResult.put(RESULTS[i], counts[i]);
+            }
+        }
+        return countsByResult;
+    }
+
+    /**
+     * Gets the number of names that broke a rule
+     * @return Invalid count
+     */
+    public int getInvalidCount() {
+        return size() - getCount(ValidationResult.VALID);
+    }
+
+    /**
+     * Gets the names that passed every rule
+     * @return Valid names in input order
+     */
+    public List<String> getValidFileNames() {
+        List<String> valid = new ArrayList<>();
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == ValidationResult.VALID.ordinal()) {
+                valid.add(fileNames[i]);
+            }
+        }
+        return valid;
+    }
+}
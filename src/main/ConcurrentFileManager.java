@@ -0,0 +1,125 @@
+package main;
+
+/**
+ * ConcurrentFileManager.java - Thread-safe File Operations
+ * A FileManager that can be shared by any number of threads. Adding and
+ * deleting a file are check-then-act sequences (exists, then create or
+ * delete), so operations on the same name are serialized by a lock.
+ * Restoring from the trash takes the same lock as adding the name. Only
+ * the try* methods are locked; the printing and batch methods go through
+ * them.
+ *
+ * Locks are striped: a name hashes to one of a fixed array of locks, so
+ * operations on different names almost always take different locks and
+ * run in parallel, without a lock per name or one lock for everything.
+ * Lookups and listings read the file system atomically and take no lock.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentFileManager extends FileManager {
+
+    private static final int STRIPES_PER_PROCESSOR = 16;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Constructor - manages the current directory
+     */
+    public ConcurrentFileManager() {
+        super();
+        this.locks = createLocks(defaultStripeCount());
+        this.mask = locks.length - 1;
+    }
+
+    /**
+     * Constructor with custom directory path
+     * @param directoryPath Path to the working directory
+     */
+    public ConcurrentFileManager(String directoryPath) {
+        this(directoryPath, defaultStripeCount());
+    }
+
+    /**
+     * Constructor with custom directory path and lock count
+     * @param directoryPath Path to the working directory
+     * @param stripes Number of locks; rounded up to a power of two
+     */
+    public ConcurrentFileManager(String directoryPath, int stripes) {
+        super(directoryPath);
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1");
+        }
+        this.locks = createLocks(stripes);
+        this.mask = locks.length - 1;
+    }
+
+    /**
+     * Gets the number of locks names are spread over
+     * @return Stripe count
+     */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    @Override
+    public FileOperationResult tryAddFile(String fileName) {
+        ReentrantLock lock = lockFor(fileName);
+        lock.lock();
+        try {
+            return super.tryAddFile(fileName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public FileOperationResult tryDeleteFile(String fileName) {
+        ReentrantLock lock = lockFor(fileName);
+        lock.lock();
+        try {
+            return super.tryDeleteFile(fileName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public FileOperationResult tryRestoreFile(String fileName) {
+        ReentrantLock lock = lockFor(fileName);
+        lock.lock();
+        try {
+            return super.tryRestoreFile(fileName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Picks the lock for a name. Names are trimmed first because adding
+     * trims them, so " a" and "a" always share a lock
+     */
+    ReentrantLock lockFor(String fileName) {
+        int hash = fileName == null ? 0 : fileName.trim().hashCode();
+        // Spread the high bits down, as HashMap does, before masking
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static int defaultStripeCount() {
+        return Runtime.getRuntime().availableProcessors() * STRIPES_PER_PROCESSOR;
+    }
+
+    private static ReentrantLock[] createLocks(int stripes) {
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+        ReentrantLock[] locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
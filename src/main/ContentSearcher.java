@@ -0,0 +1,253 @@
+package main;
+
+/**
+ * ContentSearcher.java - Parallel Search Inside Files
+ * Finds every occurrence of a string in the contents of the managed files.
+ * Each file is memory-mapped and cut into chunks that are scanned in
+ * parallel with Boyer-Moore-Horspool on the raw UTF-8 bytes; nothing is
+ * decoded except the line around a match. Chunks overlap by the pattern
+ * length minus one, so a match that straddles a boundary is found by the
+ * chunk it starts in, and only by that one. Each chunk is mapped with a
+ * small margin on both sides so the line around a match is never cut short.
+ *
+ * Matches are handed to the caller as they are found, from worker threads,
+ * in no particular order across files. The search stops early once the
+ * match limit is reached or cancel() is called.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class ContentSearcher {
+
+    /** Default chunk size: large enough that mapping costs little, small enough to spread a big file */
+    public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+
+    // Longest stretch of a line shown on each side of a match
+    private static final int CONTEXT_BYTES = 80;
+    // How often a running scan checks whether it should stop
+    private static final int STOP_CHECK_INTERVAL = 1 << 16;
+
+    /**
+     * One occurrence of the search text
+     * @param fileName File it was found in
+     * @param offset Byte offset of the match in the file
+     * @param line The line containing the match, cut to 80 bytes either side of it
+     */
+    public record Match(String fileName, long offset, String line) {
+    }
+
+    private final Path directory;
+    private final ListingBackend listingBackend;
+    private final byte[] pattern;
+    private final int[] shifts;
+    private final int maxMatches;
+    private final int parallelism;
+    private final int chunkBytes;
+
+    private final AtomicInteger matchCount = new AtomicInteger();
+    private volatile boolean stopped;
+    private volatile Consumer<Match> onMatch;
+
+    /**
+     * Constructor
+     * @param directory Directory whose files are searched
+     * @param listingBackend Backend used to list the files
+     * @param text Text to find; matched byte for byte as UTF-8, so case-sensitive
+     * @param maxMatches Most matches to report
+     * @param parallelism Number of worker threads
+     * @param chunkBytes Size of the pieces a file is split into
+     */
+    public ContentSearcher(Path directory, ListingBackend listingBackend, String text,
+                           int maxMatches, int parallelism, int chunkBytes) {
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("Search text cannot be empty");
+        }
+        if (maxMatches < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Match limit and parallelism must be at least 1");
+        }
+        this.directory = directory;
+        this.listingBackend = listingBackend;
+        this.pattern = text.getBytes(StandardCharsets.UTF_8);
+        this.shifts = shiftTable(pattern);
+        this.maxMatches = maxMatches;
+        this.parallelism = parallelism;
+        // A mapping cannot exceed 2 GB, overlap and margins included
+        this.chunkBytes = Math.min(Math.max(chunkBytes, pattern.length),
+                                   Integer.MAX_VALUE - pattern.length - 2 * CONTEXT_BYTES);
+    }
+
+    /**
+     * Runs the search and waits for it to finish, stop at the match limit
+     * or be cancelled
+     * @param onMatch Receives each match; called from worker threads
+     * @return Number of matches reported
+     * @throws IOException if the directory cannot be listed
+     */
+    public int run(Consumer<Match> onMatch) throws IOException {
+        this.onMatch = onMatch;
+        List<Future<?>> chunks = new ArrayList<>();
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            listingBackend.scan(directory, (name, attributes) -> {
+                long size = attributes != null ? attributes.size() : directory.resolve(name).toFile().length();
+                for (long start = 0; start + pattern.length <= size && !stopped; start += chunkBytes) {
+                    long chunkStart = start;
+                    chunks.add(workers.submit(() -> {
+                        searchChunk(name, chunkStart);
+                        return null;
+                    }));
+                }
+            });
+
+            for (Future<?> chunk : chunks) {
+                try {
+                    chunk.get();
+                } catch (ExecutionException e) {
+                    // Unreadable or vanished file; the others are still searched
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+        }
+        return Math.min(matchCount.get(), maxMatches);
+    }
+
+    /**
+     * Stops a running search. Chunks already being scanned stop shortly
+     * after; nothing more is reported
+     */
+    public void cancel() {
+        stopped = true;
+    }
+
+    /**
+     * Checks if the search stopped before reading everything
+     * @return true if it was cancelled or reached the match limit
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Scans the matches that start in [start, start + chunkBytes), reading
+     * pattern length - 1 bytes past the end for the ones that straddle it.
+     * The line context margin is mapped too but not scanned
+     */
+    private void searchChunk(String fileName, long start) throws IOException {
+        if (stopped) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(fileName), StandardOpenOption.READ)) {
+            // The file may have shrunk since it was listed, and mapping past its end would fault
+            long size = channel.size();
+            int last = pattern.length - 1;
+            long end = Math.min(size, start + chunkBytes + last);
+            if (end - start < pattern.length) {
+                return;
+            }
+
+            long mapStart = Math.max(0, start - CONTEXT_BYTES);
+            long mapEnd = Math.min(size, end + CONTEXT_BYTES);
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int first = (int) (start - mapStart);
+            int limit = first + (int) Math.min(chunkBytes, end - start - last); // Positions owned by this chunk
+            int nextStopCheck = first + STOP_CHECK_INTERVAL;
+
+            int position = first;
+            while (position < limit) {
+                int i = last;
+                while (chunk.get(position + i) == pattern[i]) {
+                    if (i == 0) {
+                        report(fileName, mapStart, chunk, position);
+                        break;
+                    }
+                    i--;
+                }
+                position += shifts[chunk.get(position + last) & 0xFF];
+
+                if (position >= nextStopCheck) {
+                    if (stopped) {
+                        return;
+                    }
+                    nextStopCheck = position + STOP_CHECK_INTERVAL;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports a match unless the limit has already been reached
+     */
+    private void report(String fileName, long mapStart, MappedByteBuffer chunk, int position) {
+        if (stopped) {
+            return;
+        }
+        int count = matchCount.incrementAndGet();
+        if (count > maxMatches) {
+            stopped = true;
+            return;
+        }
+
+        onMatch.accept(new Match(fileName, mapStart + position, lineAround(chunk, position)));
+
+        if (count == maxMatches) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Decodes the line around a match, at most 80 bytes either side of it
+     */
+    private String lineAround(MappedByteBuffer chunk, int position) {
+        int from = position;
+        int floor = Math.max(0, position - CONTEXT_BYTES);
+        while (from > floor && chunk.get(from - 1) != '\n') {
+            from--;
+        }
+
+        int to = position + pattern.length;
+        int ceiling = Math.min(chunk.limit(), to + CONTEXT_BYTES);
+        while (to < ceiling && chunk.get(to) != '\n') {
+            to++;
+        }
+        if (to > from && chunk.get(to - 1) == '\r') {
+            to--;
+        }
+
+        byte[] line = new byte[to - from];
+        chunk.get(from, line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds the Horspool bad-character table: how far the window can move
+     * when a given byte is under its last position
+     */
+    private static int[] shiftTable(byte[] pattern) {
+        int[] shifts = new int[256];
+        Arrays.fill(shifts, pattern.length);
+        for (int i = 0; i < pattern.length - 1; i++) {
+            shifts[pattern[i] & 0xFF] = pattern.length - 1 - i;
+        }
+        return shifts;
+    }
+}
@@ -0,0 +1,463 @@
+package main;
+
+/**
+ * DirectoryIndex.java - In-memory Directory Index
+ * Keeps a sorted set of the file names in a directory. The set is built
+ * with a single scan and then kept fresh by a WatchService thread, so
+ * counts, listings and searches do not have to rescan the directory.
+ *
+ * With a snapshot file the index survives restarts: it starts from the
+ * snapshot if the directory mtime and entry count still match, and
+ * otherwise refreshes it with a name-only listing that stats just the
+ * names the snapshot does not know; names it already has are trusted to
+ * still be files.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+public class DirectoryIndex implements AutoCloseable {
+
+    // A change within one timestamp tick of a scan may leave the directory
+    // mtime unchanged, so a snapshot taken that close to a change is not trusted
+    private static final long RACY_WINDOW_MILLIS = 50;
+    private static final long RACY_WINDOW_COARSE_MILLIS = 2000;
+
+    private final Path directory;
+    private final ListingBackend listingBackend;
+    private final Path snapshotFile;
+    private final WatchService watchService;
+    private final Object writeLock = new Object();
+
+    private volatile ConcurrentSkipListSet<String> files = new ConcurrentSkipListSet<>();
+    // Built on the first substring search, so a restart does not pay for it up front
+    private volatile TrigramIndex trigrams;
+    private volatile int fileCount;
+    private volatile boolean running;
+    private volatile long checkedModified = IndexSnapshot.STALE;
+    private volatile int checkedEntries;
+    private volatile boolean dirty;
+    private boolean restored;
+
+    /**
+     * Scans the directory once and starts watching it
+     * @param directory Directory to index
+     * @param listingBackend Backend used for the initial scan and rebuilds
+     * @return Running index
+     * @throws IOException if the directory cannot be read or watched
+     */
+    public static DirectoryIndex open(Path directory, ListingBackend listingBackend) throws IOException {
+        return open(directory, listingBackend, null);
+    }
+
+    /**
+     * Starts from a snapshot where possible, saves a fresh one if the
+     * directory had to be read, and starts watching it
+     * @param directory Directory to index
+     * @param listingBackend Backend used for full scans and rebuilds
+     * @param snapshotFile Snapshot to start from and save to, or null for none
+     * @return Running index
+     * @throws IOException if the directory cannot be read or watched
+     */
+    public static DirectoryIndex open(Path directory, ListingBackend listingBackend, Path snapshotFile)
+            throws IOException {
+        DirectoryIndex index = new DirectoryIndex(directory, listingBackend, snapshotFile);
+        try {
+            index.start();
+        } catch (IOException | RuntimeException e) {
+            index.watchService.close();
+            throw e;
+        }
+        return index;
+    }
+
+    /**
+     * Constructor - registers the watch only; open() does the rest
+     */
+    private DirectoryIndex(Path directory, ListingBackend listingBackend, Path snapshotFile) throws IOException {
+        this.directory = directory;
+        this.listingBackend = listingBackend;
+        this.snapshotFile = snapshotFile;
+        this.watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the directory, then starts the watcher. The watch is registered
+     * before the read, so a change made while reading is queued as an event
+     * and applied once the watcher starts; adding or removing a name twice
+     * is harmless
+     */
+    private void start() throws IOException {
+        if (snapshotFile == null) {
+            rebuild();
+        } else {
+            load();
+        }
+
+        running = true;
+        Thread watcher = new Thread(this::watchLoop, "DirectoryIndex-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Rescans the directory and replaces the index contents
+     * @throws IOException if the directory cannot be read
+     */
+    public void rebuild() throws IOException {
+        long started = System.currentTimeMillis();
+        long modified = directoryModified();
+        // Only a snapshot needs the count, and it costs a second listing
+        int entries = snapshotFile != null ? countEntries() : 0;
+        List<String> scanned = new ArrayList<>();
+        listingBackend.scan(directory, (name, attributes) -> scanned.add(name));
+        install(sortedSet(scanned), settled(modified, started), entries);
+    }
+
+    /**
+     * Starts from the snapshot if it matches the directory, refreshes it if
+     * it does not, and falls back to a full scan if there is none. A match
+     * needs both the mtime and the entry count: the count catches changes
+     * the mtime hides, such as a directory mtime set back by a copy tool
+     */
+    private void load() throws IOException {
+        long started = System.currentTimeMillis();
+        long modified = directoryModified();
+        List<String> loaded = new ArrayList<>();
+        IndexSnapshot.Header recorded;
+        try {
+            recorded = IndexSnapshot.read(snapshotFile, loaded::add);
+        } catch (IOException e) {
+            // Missing or unreadable: build it the slow way once
+            rebuild();
+            saveQuietly();
+            return;
+        }
+
+        if (recorded.directoryModified() != IndexSnapshot.STALE && recorded.directoryModified() == modified
+                && recorded.directoryEntries() == countEntries()) {
+            install(sortedSet(loaded), modified, recorded.directoryEntries());
+            dirty = false;
+            restored = true;
+            return;
+        }
+
+        refresh(loaded, modified, started);
+        saveQuietly();
+    }
+
+    /**
+     * Brings a stale snapshot up to date with a name-only listing. Only
+     * names the snapshot does not have are stat-ed
+     */
+    private void refresh(List<String> previous, long modified, long started) throws IOException {
+        Set<String> known = new HashSet<>(previous);
+
+        List<String> refreshed = new ArrayList<>(previous.size());
+        int listed = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                listed++;
+                String name = entry.getFileName().toString();
+                if (!known.contains(name)) {
+                    try {
+                        if (!Files.readAttributes(entry, BasicFileAttributes.class).isRegularFile()) {
+                            continue;
+                        }
+                    } catch (NoSuchFileException e) {
+                        continue; // Removed while listing
+                    }
+                }
+                refreshed.add(name);
+            }
+        }
+        install(sortedSet(refreshed), settled(modified, started), listed);
+    }
+
+    /**
+     * Counts everything the directory lists, without stat-ing any of it
+     */
+    private int countEntries() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path ignored : entries) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds the index set in ascending order, which is several times
+     * faster than inserting in directory order
+     */
+    private static ConcurrentSkipListSet<String> sortedSet(List<String> names) {
+        Collections.sort(names);
+        ConcurrentSkipListSet<String> set = new ConcurrentSkipListSet<>();
+        for (String name : names) {
+            set.add(name);
+        }
+        return set;
+    }
+
+    private void install(ConcurrentSkipListSet<String> names, long modified, int entries) {
+        synchronized (writeLock) {
+            files = names;
+            trigrams = null;
+            fileCount = names.size();
+            checkedModified = modified;
+            checkedEntries = entries;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Saves the index to its snapshot file if it changed since it was loaded
+     * or last saved
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void saveSnapshot() throws IOException {
+        if (snapshotFile == null || !dirty) {
+            return;
+        }
+
+        List<String> names;
+        IndexSnapshot.Header header;
+        synchronized (writeLock) {
+            names = new ArrayList<>(files);
+            // Changes since the last check moved the directory mtime on, so
+            // the next start refreshes rather than trusting these names blindly
+            header = new IndexSnapshot.Header(checkedModified, checkedEntries);
+            dirty = false;
+        }
+
+        try {
+            IndexSnapshot.write(snapshotFile, header, names);
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if the index was taken from the snapshot without reading the directory
+     * @return true if the snapshot matched the directory at startup
+     */
+    public boolean wasRestored() {
+        return restored;
+    }
+
+    /**
+     * A failed save only costs the next start a rescan, so indexing goes ahead
+     */
+    private void saveQuietly() {
+        try {
+            saveSnapshot();
+        } catch (IOException | SecurityException e) {
+            // Read-only directory: run without a snapshot
+        }
+    }
+
+    private long directoryModified() throws IOException {
+        return Files.getLastModifiedTime(directory).to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the mtime to record for a scan that started at the given time,
+     * or STALE if the directory changed too close to the scan to be sure
+     * the scan saw the change
+     */
+    static long settled(long modifiedNanos, long startedMillis) {
+        // Whole-second mtimes come from a file system with coarse timestamps
+        long window = modifiedNanos % 1_000_000_000L == 0 ? RACY_WINDOW_COARSE_MILLIS : RACY_WINDOW_MILLIS;
+        return TimeUnit.NANOSECONDS.toMillis(modifiedNanos) + window < startedMillis ? modifiedNanos : IndexSnapshot.STALE;
+    }
+
+    /**
+     * Records a file that was created in the directory
+     * @param fileName Name of the file
+     */
+    public void add(String fileName) {
+        synchronized (writeLock) {
+            if (files.add(fileName)) {
+                TrigramIndex index = trigrams;
+                if (index != null) {
+                    index.add(fileName);
+                }
+                fileCount++;
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Records a file that was removed from the directory
+     * @param fileName Name of the file
+     */
+    public void remove(String fileName) {
+        synchronized (writeLock) {
+            if (files.remove(fileName)) {
+                TrigramIndex index = trigrams;
+                if (index != null) {
+                    index.remove(fileName);
+                }
+                fileCount--;
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Gets a read-only, ascending view of the indexed file names
+     * @return Sorted file names
+     */
+    public NavigableSet<String> getFileNames() {
+        return Collections.unmodifiableNavigableSet(files);
+    }
+
+    /**
+     * Finds the indexed names that contain a pattern, ignoring case.
+     * Patterns of 3 or more characters are answered from the trigram index;
+     * shorter ones fall back to scanning the names
+     * @param pattern Substring to look for
+     * @return Matching names in ascending order
+     */
+    public List<String> search(String pattern) {
+        if (TrigramIndex.canSearch(pattern)) {
+            return trigramIndex().search(pattern);
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String fileName : files) {
+            if (NameMatcher.containsIgnoreCase(fileName, pattern)) {
+                matches.add(fileName);
+            }
+        }
+        return matches;
+    }
+
+    private TrigramIndex trigramIndex() {
+        TrigramIndex index = trigrams;
+        if (index == null) {
+            synchronized (writeLock) {
+                index = trigrams;
+                if (index == null) {
+                    index = new TrigramIndex();
+                    for (String fileName : files) {
+                        index.add(fileName);
+                    }
+                    trigrams = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets the number of indexed files
+     * @return Number of files
+     */
+    public int size() {
+        return fileCount;
+    }
+
+    /**
+     * Checks if the index holds no files
+     * @return true if no files are indexed, false otherwise
+     */
+    public boolean isEmpty() {
+        return fileCount == 0;
+    }
+
+    /**
+     * Checks if the watcher thread is still keeping the index fresh
+     * @return true if the directory is being watched, false otherwise
+     */
+    public boolean isWatching() {
+        return running;
+    }
+
+    /**
+     * Stops the watcher thread
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+    }
+
+    /**
+     * Watcher loop - applies create/delete events and rebuilds on overflow
+     */
+    private void watchLoop() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            boolean overflow = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                WatchEvent.Kind<?> kind = event.kind();
+
+                if (kind == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+
+                Path name = (Path) event.context();
+                if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                    if (Files.isRegularFile(directory.resolve(name))) {
+                        add(name.toString());
+                    }
+                } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                    remove(name.toString());
+                }
+            }
+
+            if (overflow) {
+                // Events were lost, so the index can no longer be trusted
+                try {
+                    rebuild();
+                } catch (IOException e) {
+                    System.err.println("Error rebuilding directory index: " + e.getMessage());
+                }
+            }
+
+            if (!key.reset()) {
+                // Directory is no longer accessible
+                running = false;
+            }
+        }
+    }
+}
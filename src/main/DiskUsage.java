@@ -0,0 +1,284 @@
+package main;
+
+/**
+ * DiskUsage.java - Disk Usage Report for a Directory Tree
+ * Totals the bytes and files under every subdirectory of the managed
+ * directory and keeps the largest files of each, like du. The tree is
+ * walked on a ForkJoinPool, one task per directory.
+ *
+ * What each directory holds directly is cached, keyed by the directory's
+ * mtime. Creating, deleting or renaming an entry changes that mtime, so a
+ * repeat report lists only the directories that changed and reuses the
+ * rest; unchanged directories cost one stat. A file rewritten in place
+ * does not touch its directory's mtime, so its new size is picked up only
+ * once something else in that directory changes.
+ *
+ * The largest files are kept in min-heaps bounded to the requested count,
+ * so nothing is ever sorted beyond that count.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DiskUsage {
+
+    /** Largest files kept per directory when no count is given */
+    public static final int DEFAULT_LARGEST_FILES = 5;
+
+    // Smallest first, so the head of a bounded heap is the one to evict
+    private static final Comparator<LargeFile> BY_SIZE =
+        Comparator.comparingLong(LargeFile::size).thenComparing(LargeFile::path, Comparator.reverseOrder());
+
+    /**
+     * A file and its size
+     * @param path Path relative to the managed directory
+     * @param size Size in bytes
+     */
+    public record LargeFile(String path, long size) {
+    }
+
+    /**
+     * Space taken by a directory and everything below it
+     * @param path Path relative to the managed directory, "." for the directory itself
+     * @param totalBytes Bytes in all files below it
+     * @param fileCount Number of files below it
+     * @param largestFiles Largest files below it, largest first
+     */
+    public record Usage(String path, long totalBytes, int fileCount, List<LargeFile> largestFiles) {
+    }
+
+    /**
+     * Outcome of a disk usage report
+     * @param total Usage of the whole tree
+     * @param subdirectories Usage of each direct subdirectory, the largest first
+     * @param directoriesWalked Directories the report covers
+     * @param directoriesListed Directories that had to be listed rather than taken from the cache
+     */
+    public record Report(Usage total, List<Usage> subdirectories, int directoriesWalked, int directoriesListed) {
+    }
+
+    /**
+     * What one directory holds directly, as of a given directory mtime
+     * @param modified Directory mtime in nanoseconds, or IndexSnapshot.STALE if it must be listed again
+     */
+    private record Listing(long modified, long bytes, int files, List<LargeFile> largest, List<Path> subdirectories) {
+    }
+
+    /**
+     * Totals for a directory and everything below it, while the walk is running
+     */
+    private static final class Subtree {
+        long bytes;
+        int files;
+        final PriorityQueue<LargeFile> largest = new PriorityQueue<>(BY_SIZE);
+    }
+
+    private final Path root;
+    private final int largestFiles;
+    private final int parallelism;
+
+    private final Map<Path, Listing> cache = new ConcurrentHashMap<>();
+    private final Set<Path> visited = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger listed = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param root Directory to report on
+     * @param largestFiles Largest files to keep per directory
+     * @param parallelism Number of worker threads
+     */
+    public DiskUsage(Path root, int largestFiles, int parallelism) {
+        if (largestFiles < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("File count and parallelism must be at least 1");
+        }
+        this.root = root;
+        this.largestFiles = largestFiles;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Walks the tree, reusing what is cached from earlier reports for
+     * directories that have not changed
+     * @return Totals for the whole tree and for each direct subdirectory
+     * @throws IOException if the directory itself cannot be read
+     */
+    public synchronized Report report() throws IOException {
+        visited.clear();
+        listed.set(0);
+
+        // Fails here, not silently in a task, when the directory is gone
+        Listing top = listing(root);
+
+        List<DirectoryTask> tasks = new ArrayList<>();
+        for (Path subdirectory : top.subdirectories) {
+            tasks.add(new DirectoryTask(subdirectory));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (DirectoryTask task : tasks) {
+                pool.execute(task);
+            }
+
+            Subtree total = own(top);
+            List<Usage> subdirectories = new ArrayList<>(tasks.size());
+            for (DirectoryTask task : tasks) {
+                Subtree subtree = task.join();
+                merge(total, subtree);
+                subdirectories.add(toUsage(task.directory, subtree));
+            }
+            subdirectories.sort(Comparator.comparingLong(Usage::totalBytes).reversed()
+                                          .thenComparing(Usage::path));
+
+            // Directories deleted since the last report are not needed any more
+            cache.keySet().retainAll(visited);
+
+            return new Report(toUsage(root, total), Collections.unmodifiableList(subdirectories),
+                              visited.size(), listed.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Totals one directory and forks a task per subdirectory
+     */
+    private class DirectoryTask extends RecursiveTask<Subtree> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+
+        DirectoryTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Subtree compute() {
+            Listing listing;
+            try {
+                listing = listing(directory);
+            } catch (IOException | SecurityException e) {
+                // Unreadable or vanished; the rest of the tree is still counted
+                return new Subtree();
+            }
+
+            List<DirectoryTask> subtasks = new ArrayList<>(listing.subdirectories.size());
+            for (Path subdirectory : listing.subdirectories) {
+                DirectoryTask subtask = new DirectoryTask(subdirectory);
+                subtask.fork();
+                subtasks.add(subtask);
+            }
+
+            Subtree subtree = own(listing);
+            for (DirectoryTask subtask : subtasks) {
+                merge(subtree, subtask.join());
+            }
+            return subtree;
+        }
+    }
+
+    /**
+     * Gets what a directory holds directly, from the cache if its mtime
+     * has not changed since it was listed
+     */
+    private Listing listing(Path directory) throws IOException {
+        visited.add(directory);
+        long started = System.currentTimeMillis();
+        long modified = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                             .lastModifiedTime().to(TimeUnit.NANOSECONDS);
+
+        Listing cached = cache.get(directory);
+        if (cached != null && cached.modified == modified) {
+            return cached;
+        }
+
+        listed.incrementAndGet();
+        long bytes = 0;
+        int files = 0;
+        PriorityQueue<LargeFile> largest = new PriorityQueue<>(BY_SIZE);
+        List<Path> subdirectories = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    continue; // Entry vanished while listing
+                }
+
+                if (attributes.isDirectory()) {
+                    // The trash and other application data are not managed files
+                    if (!entry.getFileName().toString().equals(FileManager.DATA_DIRECTORY)) {
+                        subdirectories.add(entry);
+                    }
+                } else if (attributes.isRegularFile()) {
+                    bytes += attributes.size();
+                    files++;
+                    offer(largest, new LargeFile(root.relativize(entry).toString(), attributes.size()));
+                }
+            }
+        }
+
+        // A directory changed too close to the listing to be sure it was seen is listed again next time
+        Listing listing = new Listing(DirectoryIndex.settled(modified, started), bytes, files,
+                                      List.copyOf(largest), List.copyOf(subdirectories));
+        cache.put(directory, listing);
+        return listing;
+    }
+
+    private Subtree own(Listing listing) {
+        Subtree subtree = new Subtree();
+        subtree.bytes = listing.bytes;
+        subtree.files = listing.files;
+        subtree.largest.addAll(listing.largest);
+        return subtree;
+    }
+
+    private void merge(Subtree into, Subtree from) {
+        into.bytes += from.bytes;
+        into.files += from.files;
+        for (LargeFile file : from.largest) {
+            offer(into.largest, file);
+        }
+    }
+
+    /**
+     * Adds a file to a bounded min-heap, evicting the smallest once it is full
+     */
+    private void offer(PriorityQueue<LargeFile> heap, LargeFile file) {
+        if (heap.size() < largestFiles) {
+            heap.add(file);
+        } else if (BY_SIZE.compare(file, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(file);
+        }
+    }
+
+    private Usage toUsage(Path directory, Subtree subtree) {
+        List<LargeFile> largest = new ArrayList<>(subtree.largest);
+        largest.sort(BY_SIZE.reversed());
+        String path = directory.equals(root) ? "." : root.relativize(directory).toString();
+        return new Usage(path, subtree.bytes, subtree.files, Collections.unmodifiableList(largest));
+    }
+}
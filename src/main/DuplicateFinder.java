@@ -0,0 +1,280 @@
+package main;
+
+/**
+ * DuplicateFinder.java - Byte-identical File Detection
+ * Finds files in the managed directory that have the same content, in
+ * three passes that each read more of fewer files:
+ *   1. group by size, from the listing alone
+ *   2. hash the first and last 4 KB of files that share a size
+ *   3. hash the full content of files that still collide
+ * Most files drop out in the first two passes, so full reads are spent only
+ * on likely duplicates. Full hashes read memory-mapped windows on a worker
+ * pool, largest files first, so the slowest file never starts last.
+ *
+ * Empty files are ignored: deleting them reclaims nothing.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DuplicateFinder {
+
+    private static final int PARTIAL_BYTES = 4096;
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final String DIGEST = "SHA-256";
+
+    /**
+     * Files with identical content
+     * @param size Size of each file in bytes
+     * @param fileNames Names of the files, sorted
+     */
+    public record Group(long size, List<String> fileNames) {
+
+        /**
+         * @return Bytes freed by keeping one copy and deleting the rest
+         */
+        public long reclaimableBytes() {
+            return size * (fileNames.size() - 1);
+        }
+    }
+
+    /**
+     * Outcome of a duplicate search
+     * @param groups Duplicate groups, the most reclaimable first
+     * @param reclaimableBytes Bytes freed by keeping one copy of every group
+     * @param filesScanned Non-empty files considered
+     * @param filesFullyHashed Files whose whole content had to be read
+     * @param filesSkipped Files that could not be read or changed during the search
+     */
+    public record Report(List<Group> groups, long reclaimableBytes, int filesScanned,
+                         int filesFullyHashed, int filesSkipped) {
+    }
+
+    private final Path directory;
+    private final ListingBackend listingBackend;
+    private final int parallelism;
+
+    private int filesSkipped;
+
+    /**
+     * Constructor
+     * @param directory Directory whose files are compared
+     * @param listingBackend Backend used to list the files
+     * @param parallelism Number of worker threads that hash files
+     */
+    public DuplicateFinder(Path directory, ListingBackend listingBackend, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.directory = directory;
+        this.listingBackend = listingBackend;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the search and waits for it to finish
+     * @return Duplicate groups and the space they take
+     * @throws IOException if the directory cannot be listed
+     */
+    public Report run() throws IOException {
+        filesSkipped = 0;
+
+        // Pass 1: sizes come with the listing
+        Map<Long, List<String>> bySize = new HashMap<>();
+        int[] scanned = new int[1];
+        listingBackend.scan(directory, (name, attributes) -> {
+            long size;
+            try {
+                size = attributes != null ? attributes.size() : Files.size(directory.resolve(name));
+            } catch (IOException e) {
+                filesSkipped++; // Vanished or became unreadable since it was listed
+                return;
+            }
+            if (size > 0) {
+                bySize.computeIfAbsent(size, key -> new ArrayList<>()).add(name);
+                scanned[0]++;
+            }
+        });
+
+        List<Candidate> sameSize = new ArrayList<>();
+        for (Map.Entry<Long, List<String>> entry : bySize.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                for (String name : entry.getValue()) {
+                    sameSize.add(new Candidate(name, entry.getKey()));
+                }
+            }
+        }
+
+        List<Group> groups = new ArrayList<>();
+        int fullyHashed = 0;
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(parallelism)) {
+            // Pass 2: the ends of a file usually tell different files apart
+            List<List<Candidate>> samePartial = group(workers, sameSize, this::partialHash);
+
+            List<Candidate> needFullHash = new ArrayList<>();
+            for (List<Candidate> candidates : samePartial) {
+                if (candidates.get(0).size <= 2 * PARTIAL_BYTES) {
+                    groups.add(toGroup(candidates)); // The partial hash already covered every byte
+                } else {
+                    needFullHash.addAll(candidates);
+                }
+            }
+
+            // Pass 3: largest first, so one big file does not finish the run alone
+            needFullHash.sort(Comparator.comparingLong((Candidate candidate) -> candidate.size).reversed());
+            fullyHashed = needFullHash.size();
+            for (List<Candidate> candidates : group(workers, needFullHash, this::fullHash)) {
+                groups.add(toGroup(candidates));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Duplicate search interrupted", e);
+        }
+
+        groups.sort(Comparator.comparingLong(Group::reclaimableBytes).reversed()
+                              .thenComparing(group -> group.fileNames().get(0)));
+        long reclaimable = 0;
+        for (Group group : groups) {
+            reclaimable += group.reclaimableBytes();
+        }
+        return new Report(groups, reclaimable, scanned[0], fullyHashed, filesSkipped);
+    }
+
+    /**
+     * A file still in the running, with the size it had when listed
+     */
+    private record Candidate(String name, long size) {
+    }
+
+    @FunctionalInterface
+    private interface Hasher {
+        String hash(Candidate candidate) throws IOException;
+    }
+
+    /**
+     * Hashes every candidate on the workers and groups those with the same
+     * size and hash. Unreadable files are dropped; groups of one are too
+     */
+    private List<List<Candidate>> group(ExecutorService workers, List<Candidate> candidates, Hasher hasher)
+            throws InterruptedException {
+        List<Future<String>> hashes = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            hashes.add(workers.submit(() -> hasher.hash(candidate)));
+        }
+
+        Map<String, List<Candidate>> byHash = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            String hash;
+            try {
+                hash = hashes.get(i).get();
+            } catch (ExecutionException e) {
+                filesSkipped++;
+                continue;
+            }
+            if (hash == null) {
+                filesSkipped++; // Changed size since it was listed
+                continue;
+            }
+            Candidate candidate = candidates.get(i);
+            byHash.computeIfAbsent(candidate.size + ":" + hash, key -> new ArrayList<>()).add(candidate);
+        }
+
+        List<List<Candidate>> groups = new ArrayList<>();
+        for (List<Candidate> group : byHash.values()) {
+            if (group.size() > 1) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Hashes the first and last 4 KB, or the whole file if it is no larger than that
+     */
+    private String partialHash(Candidate candidate) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(directory.resolve(candidate.name), StandardOpenOption.READ)) {
+            if (channel.size() != candidate.size) {
+                return null;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(PARTIAL_BYTES);
+            readFully(channel, buffer, 0, (int) Math.min(PARTIAL_BYTES, candidate.size));
+            digest.update(buffer.flip());
+
+            long tail = Math.max(PARTIAL_BYTES, candidate.size - PARTIAL_BYTES);
+            if (tail < candidate.size) {
+                readFully(channel, buffer.clear(), tail, (int) (candidate.size - tail));
+                digest.update(buffer.flip());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes the whole file through memory-mapped windows, so the bytes go
+     * from the page cache to the digest without a copy
+     */
+    private String fullHash(Candidate candidate) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(directory.resolve(candidate.name), StandardOpenOption.READ)) {
+            // Mapping past the end of a file that shrank would fault, so check first
+            if (channel.size() != candidate.size) {
+                return null;
+            }
+            for (long position = 0; position < candidate.size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, candidate.size - position);
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position, int length)
+            throws IOException {
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("File shrank while reading");
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST + " is required on every Java platform", e);
+        }
+    }
+
+    private static Group toGroup(List<Candidate> candidates) {
+        List<String> names = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            names.add(candidate.name);
+        }
+        Collections.sort(names);
+        return new Group(candidates.get(0).size, Collections.unmodifiableList(names));
+    }
+}
@@ -0,0 +1,393 @@
+package main;
+
+/**
+ * ExternalSorter.java - External Merge Sort for File Names
+ * Sorts name sets that do not fit in the heap. Names are buffered until a
+ * memory budget is reached, then each sorted buffer is spilled to a temp
+ * file as a "run" and the runs are k-way merged into the output.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+public class ExternalSorter {
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_MERGE_FAN_IN = 64;
+
+    // Rough heap cost of one buffered name: String + backing array + list slot
+    private static final int STRING_OVERHEAD_BYTES = 64;
+
+    private final long memoryBudgetBytes;
+    private final Path tempDirectory;
+
+    /**
+     * Constructor - spills runs to the default temp directory
+     * @param memoryBudgetBytes Approximate heap to use for buffering names
+     */
+    public ExternalSorter(long memoryBudgetBytes) {
+        this(memoryBudgetBytes, null);
+    }
+
+    /**
+     * Constructor with custom temp directory
+     * @param memoryBudgetBytes Approximate heap to use for buffering names
+     * @param tempDirectory Directory for run files, or null for the system default
+     */
+    public ExternalSorter(long memoryBudgetBytes, Path tempDirectory) {
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Gets the memory budget used before spilling a run
+     * @return Budget in bytes
+     */
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * Sorts names in ascending order. The input is fully consumed before
+     * this method returns; the result is then read back as a merged stream
+     * @param names Names to sort
+     * @return Sorted names, which must be closed to delete the run files
+     * @throws IOException if a run cannot be written or read
+     */
+    public SortedNames sort(Iterator<String> names) throws IOException {
+        SortBuffer buffer = newBuffer();
+        try {
+            while (names.hasNext()) {
+                buffer.add(names.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            buffer.discard();
+            throw e;
+        }
+        return buffer.finish();
+    }
+
+    /**
+     * Starts a push-style sort, for producers that cannot offer an Iterator
+     * @return Buffer to add names to
+     */
+    public SortBuffer newBuffer() {
+        return new SortBuffer();
+    }
+
+    /**
+     * Collects names for one sort, spilling sorted runs as the budget fills
+     */
+    public class SortBuffer {
+
+        private final HeapTracker heap = new HeapTracker();
+        private final List<Path> runs = new ArrayList<>();
+        private final List<String> buffer = new ArrayList<>();
+        private long bufferedBytes;
+        private long entryCount;
+        private int runsSpilled;
+
+        private SortBuffer() {
+        }
+
+        /**
+         * Adds a name to the sort
+         * @param name Name to add
+         * @throws IOException if a run cannot be spilled
+         */
+        public void add(String name) throws IOException {
+            buffer.add(name);
+            bufferedBytes += STRING_OVERHEAD_BYTES + 2L * name.length();
+            entryCount++;
+
+            if (bufferedBytes >= memoryBudgetBytes) {
+                heap.sample();
+                try {
+                    runs.add(writeRun(buffer));
+                } catch (IOException e) {
+                    discard();
+                    throw e;
+                }
+                runsSpilled++;
+                buffer.clear();
+                bufferedBytes = 0;
+            }
+        }
+
+        /**
+         * Finishes the input and starts merging
+         * @return Sorted names, which must be closed to delete the run files
+         * @throws IOException if a run cannot be written or read
+         */
+        public SortedNames finish() throws IOException {
+            try {
+                heap.sample();
+                Collections.sort(buffer);
+
+                // Keep the number of open run files bounded
+                while (runs.size() > MAX_MERGE_FAN_IN) {
+                    List<Path> batch = new ArrayList<>(runs.subList(0, MAX_MERGE_FAN_IN));
+                    runs.subList(0, MAX_MERGE_FAN_IN).clear();
+                    runs.add(mergeRuns(batch, heap));
+                }
+
+                return new SortedNames(runs, buffer, entryCount, runsSpilled, heap);
+
+            } catch (IOException | RuntimeException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        /**
+         * Abandons the sort and deletes any spilled runs
+         */
+        public void discard() {
+            deleteRuns(runs);
+            runs.clear();
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Sorts a buffer and writes it to a new run file.
+     * Run layout: each name is written as (true, writeUTF(name)), then false
+     */
+    private Path writeRun(List<String> buffer) throws IOException {
+        Collections.sort(buffer);
+
+        Path run = createRunFile();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER_SIZE))) {
+            for (String name : buffer) {
+                out.writeBoolean(true);
+                out.writeUTF(name);
+            }
+            out.writeBoolean(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+
+        return run;
+    }
+
+    /**
+     * Merges several runs into a single new run and deletes the inputs
+     */
+    private Path mergeRuns(List<Path> batch, HeapTracker heap) throws IOException {
+        Path merged = createRunFile();
+
+        try (SortedNames names = new SortedNames(batch, new ArrayList<>(), 0, 0, heap);
+             DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(Files.newOutputStream(merged), STREAM_BUFFER_SIZE))) {
+            while (names.hasNext()) {
+                out.writeBoolean(true);
+                out.writeUTF(names.next());
+            }
+            out.writeBoolean(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(merged);
+            throw e;
+        }
+
+        return merged;
+    }
+
+    private Path createRunFile() throws IOException {
+        return tempDirectory == null
+            ? Files.createTempFile("lockedme-run-", ".tmp")
+            : Files.createTempFile(tempDirectory, "lockedme-run-", ".tmp");
+    }
+
+    private static void deleteRuns(List<Path> runs) {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                System.err.println("Warning: could not delete sort run " + run + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sorted output of an external sort - a k-way merge over the spilled
+     * runs and the final in-memory buffer
+     */
+    public static class SortedNames implements Iterator<String>, AutoCloseable {
+
+        private final List<Path> runs;
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<RunReader> queue =
+            new PriorityQueue<>((a, b) -> a.head.compareTo(b.head));
+        private final long entryCount;
+        private final int runsSpilled;
+        private final HeapTracker heap;
+        private long returned;
+
+        private SortedNames(List<Path> runs, List<String> memoryRun, long entryCount,
+                            int runsSpilled, HeapTracker heap) throws IOException {
+            this.runs = runs;
+            this.entryCount = entryCount;
+            this.runsSpilled = runsSpilled;
+            this.heap = heap;
+
+            try {
+                for (Path run : runs) {
+                    RunReader reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        queue.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+
+            RunReader memoryReader = new RunReader(memoryRun.iterator());
+            if (memoryReader.advance()) {
+                queue.add(memoryReader);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            RunReader reader = queue.poll();
+            if (reader == null) {
+                throw new NoSuchElementException();
+            }
+
+            String name = reader.head;
+            try {
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read sort run", e);
+            }
+
+            if ((++returned & 0xFFFF) == 0) {
+                heap.sample();
+            }
+            return name;
+        }
+
+        /**
+         * Gets the number of names that were sorted
+         * @return Entry count
+         */
+        public long getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * Gets the number of runs that were spilled to temp files
+         * @return Number of runs, 0 if everything fit in the budget
+         */
+        public int getRunsSpilled() {
+            return runsSpilled;
+        }
+
+        /**
+         * Gets the highest heap usage observed while sorting and merging
+         * @return Peak heap in bytes
+         */
+        public long getPeakHeapBytes() {
+            return heap.peak;
+        }
+
+        /**
+         * Closes the run files and deletes them
+         */
+        @Override
+        public void close() {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+            readers.clear();
+            queue.clear();
+            deleteRuns(runs);
+        }
+    }
+
+    /**
+     * Reads names back from a run file, or from the in-memory run
+     */
+    private static class RunReader {
+
+        private final DataInputStream in;
+        private final Iterator<String> memory;
+        private String head;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER_SIZE));
+            this.memory = null;
+        }
+
+        RunReader(Iterator<String> memory) {
+            this.in = null;
+            this.memory = memory;
+        }
+
+        boolean advance() throws IOException {
+            if (memory != null) {
+                head = memory.hasNext() ? memory.next() : null;
+            } else {
+                // Each record is preceded by a marker; false marks the end of the run
+                head = in.readBoolean() ? in.readUTF() : null;
+            }
+            return head != null;
+        }
+
+        void close() {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Tracks peak heap usage at sampling points
+     */
+    private static class HeapTracker {
+
+        private long peak;
+
+        void sample() {
+            Runtime runtime = Runtime.getRuntime();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            if (used > peak) {
+                peak = used;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package main;
+
+/**
+ * FileDetails.java - File Attribute Snapshot
+ * Holds everything a file lookup reports (type, size, modification time
+ * and access flags) so callers can reuse it instead of re-querying the
+ * file system.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+public record FileDetails(String name,
+                          String path,
+                          long size,
+                          long lastModified,
+                          boolean regularFile,
+                          boolean readable,
+                          boolean writable,
+                          boolean executable) {
+
+    private static final String UNIX_ATTRIBUTES = "unix:uid,mode,size,lastModifiedTime,isRegularFile";
+    private static final int OWNER_READ = 0400;
+    private static final int OWNER_WRITE = 0200;
+    private static final int OWNER_EXECUTE = 0100;
+
+    // /proc/self is owned by the effective uid of this process; -1 where there is no /proc
+    private static final int PROCESS_UID = processUid();
+
+    // Root passes every permission check, so it always asks the operating system
+    private static volatile boolean unixSupported = PROCESS_UID > 0;
+
+    /**
+     * Reads the details of a file. On Unix, one attribute fetch returns the
+     * owner uid and mode bits. For a file the process owns, the owner bits
+     * decide access, and the operating system is asked only when they allow
+     * writing or executing, because a read-only or noexec mount can still
+     * refuse. Files owned by someone else go through the full access checks,
+     * so group bits and ACLs are honoured
+     * @param path Path of the file
+     * @return File details, or null if nothing exists at the path
+     * @throws IOException if the attributes cannot be read
+     */
+    public static FileDetails read(Path path) throws IOException {
+        try {
+            if (unixSupported) {
+                try {
+                    return fromUnix(path, Files.readAttributes(path, UNIX_ATTRIBUTES));
+                } catch (UnsupportedOperationException e) {
+                    unixSupported = false;
+                }
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return withAccessChecks(path, attributes.size(), attributes.lastModifiedTime(),
+                                    attributes.isRegularFile());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds details from the unix attribute view
+     */
+    private static FileDetails fromUnix(Path path, Map<String, Object> attributes) {
+        long size = (Long) attributes.get("size");
+        FileTime lastModified = (FileTime) attributes.get("lastModifiedTime");
+        boolean regularFile = (Boolean) attributes.get("isRegularFile");
+
+        if ((Integer) attributes.get("uid") != PROCESS_UID) {
+            return withAccessChecks(path, size, lastModified, regularFile);
+        }
+
+        // Only the owner bits apply to the owner; group bits and ACL entries do not
+        int mode = (Integer) attributes.get("mode");
+        boolean readable = (mode & OWNER_READ) != 0;
+        boolean writable = (mode & OWNER_WRITE) != 0 && Files.isWritable(path);
+        boolean executable = (mode & OWNER_EXECUTE) != 0 && Files.isExecutable(path);
+
+        return new FileDetails(path.getFileName().toString(), path.toAbsolutePath().toString(),
+            size, lastModified.toMillis(), regularFile, readable, writable, executable);
+    }
+
+    /**
+     * Builds details asking the operating system for each access flag
+     */
+    private static FileDetails withAccessChecks(Path path, long size, FileTime lastModified, boolean regularFile) {
+        return new FileDetails(path.getFileName().toString(), path.toAbsolutePath().toString(),
+            size, lastModified.toMillis(), regularFile, Files.isReadable(path), Files.isWritable(path),
+            Files.isExecutable(path));
+    }
+
+    private static int processUid() {
+        try {
+            return (Integer) Files.getAttribute(Path.of("/proc/self"), "unix:uid");
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
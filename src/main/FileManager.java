@@ -11,20 +11,60 @@ package main;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import main.FileOperationResult.Status;
+import main.OperationStats.Operation;
 
 public class FileManager {
     
     private static final String CURRENT_DIRECTORY = System.getProperty("user.dir");
-    private File workingDirectory;
+    /** Directory inside the managed directory where the application keeps its own data */
+    static final String DATA_DIRECTORY = ".lockedme";
+    private static final int MATCHER_CACHE_SIZE = 64;
+    private static final int DEFAULT_BATCH_CONCURRENCY = 64;
+    static final Duration DEFAULT_TRASH_RETENTION = Duration.ofDays(7);
+    static final long DEFAULT_PURGE_BYTES_PER_SECOND = 64L * 1024 * 1024;
+    // Renderers are not thread-safe and ConcurrentFileManager shares one FileManager across threads
+    private static final ThreadLocal<FrameRenderer> RENDERER = ThreadLocal.withInitial(FrameRenderer::new);
+    private final File workingDirectory;
+    private final Trash trash;
+    private final DiskUsage diskUsage;
+    private volatile boolean trashEnabled;
+    private volatile DirectoryIndex directoryIndex;
+    private volatile ListingBackend listingBackend = ListingBackend.WALK_FILE_TREE;
+    private final MatcherCache matcherCache = new MatcherCache(MATCHER_CACHE_SIZE);
+    private final OperationStats operationStats = new OperationStats();
+    private volatile int batchConcurrency = DEFAULT_BATCH_CONCURRENCY;
+    private volatile long sortMemoryBudget = Runtime.getRuntime().maxMemory() / 4;
     
     /**
      * Constructor - initializes the working directory
      */
     public FileManager() {
         this.workingDirectory = new File(CURRENT_DIRECTORY);
+        this.trash = new Trash(workingDirectory.toPath());
+        this.diskUsage = new DiskUsage(workingDirectory.toPath(), DiskUsage.DEFAULT_LARGEST_FILES,
+                                       Runtime.getRuntime().availableProcessors());
     }
     
     /**
@@ -32,42 +72,335 @@ public class FileManager {
      * @param directoryPath Path to the working directory
      */
     public FileManager(String directoryPath) {
-        this.workingDirectory = new File(directoryPath);
-        if (!workingDirectory.exists() || !workingDirectory.isDirectory()) {
+        File directory = new File(directoryPath);
+        if (!directory.exists() || !directory.isDirectory()) {
             System.err.println("Warning: Directory does not exist, using current directory");
-            this.workingDirectory = new File(CURRENT_DIRECTORY);
+            directory = new File(CURRENT_DIRECTORY);
         }
+        this.workingDirectory = directory;
+        this.trash = new Trash(directory.toPath());
+        this.diskUsage = new DiskUsage(directory.toPath(), DiskUsage.DEFAULT_LARGEST_FILES,
+                                       Runtime.getRuntime().availableProcessors());
     }
     
     /**
      * Displays all files in the current directory in ascending order
-     * Uses Collections.sort() for efficient sorting
+     * Uses an external merge sort, so listings larger than the heap spill
+     * sorted runs to temp files instead of failing
      */
     public void displayFilesAscending() {
+        long start = System.nanoTime();
         try {
-            List<String> fileNames = getFileList();
-            
-            if (fileNames.isEmpty()) {
-                System.out.println("The directory is empty. No files found.");
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                // The index is already sorted
+                printListing(index.getFileNames().iterator(), index.size());
                 return;
             }
             
-            // Sort files in ascending order using Collections.sort()
-            Collections.sort(fileNames);
-            
-            System.out.println("Files in directory (" + workingDirectory.getAbsolutePath() + "):");
-            System.out.println("Total files found: " + fileNames.size());
-            System.out.println("----------------------------------------");
-            
-            for (int i = 0; i < fileNames.size(); i++) {
-                System.out.println((i + 1) + ". " + fileNames.get(i));
+            try (ExternalSorter.SortedNames fileNames = sortFileNames()) {
+                printListing(fileNames, fileNames.getEntryCount());
+                
+                if (fileNames.getRunsSpilled() > 0) {
+                    System.out.println("Sorted using " + fileNames.getRunsSpilled() + 
+                                     " spilled runs (peak heap: " + formatFileSize(fileNames.getPeakHeapBytes()) + ")");
+                }
             }
             
-            System.out.println("----------------------------------------");
-            
         } catch (Exception e) {
+            operationStats.recordError(Operation.LIST_FILES, e);
             System.err.println("Error retrieving file list: " + e.getMessage());
             throw new RuntimeException("Failed to display files", e);
+        } finally {
+            operationStats.record(Operation.LIST_FILES, start);
+        }
+    }
+    
+    /**
+     * Prints a numbered listing of sorted file names
+     * @param fileNames Sorted file names
+     * @param total Number of names
+     */
+    private void printListing(Iterator<String> fileNames, long total) {
+        if (total == 0 || !fileNames.hasNext()) {
+            System.out.println("The directory is empty. No files found.");
+            return;
+        }
+        
+        // Lines are buffered and written in large blocks, not one println each
+        FrameRenderer renderer = RENDERER.get();
+        renderer.line("Files in directory (" + workingDirectory.getAbsolutePath() + "):");
+        renderer.line("Total files found: " + total);
+        renderer.line("----------------------------------------");
+        
+        long number = 1;
+        while (fileNames.hasNext()) {
+            renderer.line(number++, fileNames.next());
+        }
+        
+        renderer.line("----------------------------------------");
+        renderer.flush();
+    }
+    
+    /**
+     * Selects how the directory is enumerated when it is not indexed
+     * @param backend Listing backend to use
+     */
+    public void setListingBackend(ListingBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("Listing backend cannot be null");
+        }
+        this.listingBackend = backend;
+    }
+    
+    /**
+     * Gets the listing backend in use
+     * @return Listing backend
+     */
+    public ListingBackend getListingBackend() {
+        return listingBackend;
+    }
+    
+    /**
+     * Sets the heap budget for sorting listings before runs are spilled to disk
+     * @param budgetBytes Budget in bytes
+     */
+    public void setSortMemoryBudget(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Sort memory budget must be positive");
+        }
+        this.sortMemoryBudget = budgetBytes;
+    }
+    
+    /**
+     * Gets the heap budget for sorting listings
+     * @return Budget in bytes
+     */
+    public long getSortMemoryBudget() {
+        return sortMemoryBudget;
+    }
+    
+    /**
+     * Gets one page of the file listing in ascending order.
+     * Only the smallest (offset + limit) names are held in memory, so early
+     * pages come back quickly however large the directory is
+     * @param offset Number of names to skip
+     * @param limit Maximum number of names to return
+     * @return Sorted file names for the requested page
+     */
+    public List<String> listFiles(int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            if (offset < 0 || limit < 0) {
+                throw new IllegalArgumentException("Offset and limit must not be negative");
+            }
+        
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                return copyPage(index.getFileNames().iterator(), offset, limit);
+            }
+        
+            List<String> smallest = selectSmallest(null, (int) Math.min(Integer.MAX_VALUE, (long) offset + limit));
+            if (offset >= smallest.size()) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(smallest.subList(offset, smallest.size()));
+        } catch (RuntimeException e) {
+            operationStats.recordError(Operation.LIST_FILES, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.LIST_FILES, start);
+        }
+    }
+    
+    /**
+     * Gets the page of file names that follows a given name (cursor paging).
+     * Memory stays bounded by the page size no matter how deep the page is
+     * @param afterName Last name of the previous page, or null for the first page
+     * @param limit Maximum number of names to return
+     * @return Sorted file names strictly greater than afterName
+     */
+    public List<String> listFilesAfter(String afterName, int limit) {
+        long start = System.nanoTime();
+        try {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+        
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                Iterator<String> names = afterName == null
+                    ? index.getFileNames().iterator()
+                    : index.getFileNames().tailSet(afterName, false).iterator();
+                return copyPage(names, 0, limit);
+            }
+        
+            return selectSmallest(afterName, limit);
+        } catch (RuntimeException e) {
+            operationStats.recordError(Operation.LIST_FILES, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.LIST_FILES, start);
+        }
+    }
+    
+    /**
+     * Streams every file name in ascending order without printing anything.
+     * Uses the index when enabled, otherwise the external merge sort
+     * @param action Receives each file name
+     * @return Number of names passed to the action
+     * @throws IOException if the directory or a sort run cannot be read
+     */
+    public long forEachFileAscending(Consumer<String> action) throws IOException {
+        return visitAscending((name, attributes) -> action.accept(name));
+    }
+    
+    /**
+     * Writes a record for every file, in ascending name order, straight
+     * from the sorted listing. The writer is not flushed
+     * @param writer Receives one file record per file
+     * @return Number of records written
+     * @throws IOException if the directory cannot be read or the output cannot be written
+     */
+    public long writeFileListing(RecordWriter writer) throws IOException {
+        Path directory = workingDirectory.toPath();
+        long[] written = new long[1];
+        
+        visitAscending((name, attributes) -> {
+            FileDetails details = FileDetails.read(directory.resolve(name));
+            // Files deleted since the listing was taken are left out
+            if (details != null && details.regularFile()) {
+                writer.writeFile(details);
+                written[0]++;
+            }
+        });
+        
+        return written[0];
+    }
+    
+    /**
+     * Writes a name-only record for every file, in ascending name order,
+     * straight from the sorted listing. The writer is not flushed
+     * @param writer Receives one name record per file
+     * @return Number of records written
+     * @throws IOException if the directory cannot be read or the output cannot be written
+     */
+    public long writeFileNames(RecordWriter writer) throws IOException {
+        return visitAscending((name, attributes) -> writer.writeName(name));
+    }
+    
+    /**
+     * Writes a record for each file matching a pattern, as the matches are
+     * found. The writer is not flushed
+     * @param pattern Pattern to match
+     * @param mode Substring, glob or regex matching
+     * @param writer Receives one file record per match
+     * @return Number of records written
+     * @throws IOException if the directory cannot be read or the output cannot be written
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    public long writeSearchResults(String pattern, SearchMode mode, RecordWriter writer) throws IOException {
+        Path directory = workingDirectory.toPath();
+        long[] written = new long[1];
+        
+        visitMatches(pattern, mode, (name, attributes) -> {
+            FileDetails details = FileDetails.read(directory.resolve(name));
+            if (details != null && details.regularFile()) {
+                writer.writeFile(details);
+                written[0]++;
+            }
+        });
+        
+        return written[0];
+    }
+    
+    /**
+     * Writes a name-only record for each file matching a pattern, as the
+     * matches are found. The writer is not flushed
+     * @param pattern Pattern to match
+     * @param mode Substring, glob or regex matching
+     * @param writer Receives one name record per match
+     * @return Number of records written
+     * @throws IOException if the directory cannot be read or the output cannot be written
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    public long writeSearchNames(String pattern, SearchMode mode, RecordWriter writer) throws IOException {
+        return visitMatches(pattern, mode, (name, attributes) -> writer.writeName(name));
+    }
+    
+    /**
+     * Calls a visitor for every file name matching a pattern. Indexed
+     * substring searches come from the trigram index; everything else is
+     * matched against the ascending listing as it streams past, so no list
+     * of names is built
+     * @param visitor Receives each matching name; attributes are always null
+     * @return Number of names visited
+     * @throws IOException if the directory cannot be read or the visitor fails
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    private long visitMatches(String pattern, SearchMode mode, ListingBackend.EntryVisitor visitor)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            DirectoryIndex index = directoryIndex;
+            if (mode == SearchMode.SUBSTRING && index != null) {
+                List<String> matches = index.search(pattern);
+                for (String fileName : matches) {
+                    visitor.visit(fileName, null);
+                }
+                return matches.size();
+            }
+            
+            NameMatcher matcher = matcherCache.newMatcher(pattern, mode);
+            long[] matched = new long[1];
+            visitAscending((name, attributes) -> {
+                if (matcher.matches(name)) {
+                    visitor.visit(name, null);
+                    matched[0]++;
+                }
+            });
+            return matched[0];
+        } catch (IOException | RuntimeException e) {
+            operationStats.recordError(Operation.PATTERN_SEARCH, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.PATTERN_SEARCH, start);
+        }
+    }
+    
+    /**
+     * Calls a visitor for every file name in ascending order, from the
+     * index when enabled, otherwise from the external merge sort
+     * @param visitor Receives each name; attributes are always null
+     * @return Number of names visited
+     * @throws IOException if the directory cannot be read or the visitor fails
+     */
+    private long visitAscending(ListingBackend.EntryVisitor visitor) throws IOException {
+        long start = System.nanoTime();
+        try {
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                long count = 0;
+                for (String fileName : index.getFileNames()) {
+                    visitor.visit(fileName, null);
+                    count++;
+                }
+                return count;
+            }
+        
+            try (ExternalSorter.SortedNames fileNames = sortFileNames()) {
+                long count = 0;
+                while (fileNames.hasNext()) {
+                    visitor.visit(fileNames.next(), null);
+                    count++;
+                }
+                return count;
+            }
+        } catch (IOException | RuntimeException e) {
+            operationStats.recordError(Operation.LIST_FILES, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.LIST_FILES, start);
         }
     }
     
@@ -77,40 +410,63 @@ public class FileManager {
      * @return true if file was created successfully, false otherwise
      */
     public boolean addFile(String fileName) {
+        FileOperationResult result = tryAddFile(fileName);
+        switch (result.getStatus()) {
+            case CREATED:
+                System.out.println("File created at: " + new File(workingDirectory, fileName.trim()).getAbsolutePath());
+                return true;
+            case INVALID_NAME:
+                System.err.println("Error: File name cannot be empty or invalid");
+                return false;
+            case ALREADY_EXISTS:
+                System.out.println("File '" + fileName + "' already exists in the directory.");
+                return false;
+            case ACCESS_DENIED:
+                System.err.println("Security Error: Permission denied to create file '" + fileName + "': " + result.getDetail());
+                return false;
+            case IO_ERROR:
+                System.err.println("IO Error while creating file '" + fileName + "': " + result.getDetail());
+                return false;
+            default:
+                System.err.println("Unexpected error while creating file '" + fileName + "': " + result.getDetail());
+                return false;
+        }
+    }
+    
+    /**
+     * Creates a file without printing anything. Expected outcomes such as
+     * ALREADY_EXISTS come back as shared results, so they cost no allocation
+     * @param fileName Name of the file to create
+     * @return CREATED, INVALID_NAME, ALREADY_EXISTS, ACCESS_DENIED, IO_ERROR or FAILED
+     */
+    public FileOperationResult tryAddFile(String fileName) {
+        long start = System.nanoTime();
         try {
             if (fileName == null || fileName.trim().isEmpty()) {
-                System.err.println("Error: File name cannot be empty");
-                return false;
+                return FileOperationResult.of(Status.INVALID_NAME);
             }
-            
+        
             File newFile = new File(workingDirectory, fileName.trim());
-            
-            // Check if file already exists
             if (newFile.exists()) {
-                System.out.println("File '" + fileName + "' already exists in the directory.");
-                return false;
+                return FileOperationResult.of(Status.ALREADY_EXISTS);
             }
-            
-            // Create the new file
-            boolean created = newFile.createNewFile();
-            
-            if (created) {
-                System.out.println("File created at: " + newFile.getAbsolutePath());
-                return true;
-            } else {
-                System.err.println("Failed to create file: " + fileName);
-                return false;
+        
+            // createFile() is atomic, so a concurrent create of the same name is reported as existing
+            Files.createFile(newFile.toPath());
+        
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                index.add(newFile.getName());
             }
-            
-        } catch (IOException e) {
-            System.err.println("IO Error while creating file '" + fileName + "': " + e.getMessage());
-            return false;
-        } catch (SecurityException e) {
-            System.err.println("Security Error: Permission denied to create file '" + fileName + "': " + e.getMessage());
-            return false;
+            return FileOperationResult.of(Status.CREATED);
+        } catch (FileAlreadyExistsException e) {
+            return FileOperationResult.of(Status.ALREADY_EXISTS);
+        } catch (InvalidPathException e) {
+            return FileOperationResult.of(Status.INVALID_NAME);
         } catch (Exception e) {
-            System.err.println("Unexpected error while creating file '" + fileName + "': " + e.getMessage());
-            return false;
+            return failure(Operation.ADD_FILE, e);
+        } finally {
+            operationStats.record(Operation.ADD_FILE, start);
         }
     }
     
@@ -120,42 +476,332 @@ public class FileManager {
      * @return true if file was deleted successfully, false otherwise
      */
     public boolean deleteFile(String fileName) {
+        FileOperationResult result = tryDeleteFile(fileName);
+        switch (result.getStatus()) {
+            case DELETED:
+                String path = new File(workingDirectory, fileName).getAbsolutePath();
+                if (result.getDetail() != null) {
+                    System.out.println(result.getDetail() + ": " + path);
+                } else {
+                    System.out.println(trashEnabled
+                        ? "File moved to trash from: " + path + " (restorable for " + formatDuration(trash.getRetention()) + ")"
+                        : "File deleted permanently from: " + path);
+                }
+                return true;
+            case INVALID_NAME:
+                System.err.println("Error: File name cannot be empty or invalid");
+                return false;
+            case NOT_FOUND:
+                return false; // File not found
+            case NOT_A_FILE:
+                System.err.println("Error: '" + fileName + "' is not a file");
+                return false;
+            case ACCESS_DENIED:
+                System.err.println("Security Error: Permission denied to delete file '" + fileName + "': " + result.getDetail());
+                return false;
+            case IO_ERROR:
+                System.err.println("IO Error while deleting file '" + fileName + "': " + result.getDetail());
+                return false;
+            default:
+                System.err.println("Unexpected error while deleting file '" + fileName + "': " + result.getDetail());
+                return false;
+        }
+    }
+    
+    /**
+     * Deletes a file without printing anything; in trash mode the file is
+     * moved to the trash instead
+     * @param fileName Name of the file to delete (case-sensitive)
+     * @return DELETED, INVALID_NAME, NOT_FOUND, NOT_A_FILE, ACCESS_DENIED, IO_ERROR or FAILED
+     */
+    public FileOperationResult tryDeleteFile(String fileName) {
+        long start = System.nanoTime();
         try {
             if (fileName == null || fileName.trim().isEmpty()) {
-                System.err.println("Error: File name cannot be empty");
-                return false;
+                return FileOperationResult.of(Status.INVALID_NAME);
             }
-            
+        
             File fileToDelete = new File(workingDirectory, fileName);
-            
+        
             // Check if file exists (case-sensitive)
             if (!fileToDelete.exists()) {
-                return false; // File not found
+                return FileOperationResult.of(Status.NOT_FOUND);
             }
-            
-            // Check if it's actually a file (not a directory)
             if (!fileToDelete.isFile()) {
-                System.err.println("Error: '" + fileName + "' is not a file");
-                return false;
+                return FileOperationResult.of(Status.NOT_A_FILE);
             }
-            
-            // Delete the file
-            boolean deleted = fileToDelete.delete();
-            
-            if (deleted) {
-                System.out.println("File deleted from: " + fileToDelete.getAbsolutePath());
-                return true;
+        
+            // In trash mode the file is renamed away, which takes constant time
+            String note = null;
+            if (trashEnabled) {
+                try {
+                    trash.moveToTrash(fileName);
+                } catch (FileSystemException e) {
+                    if (!isNameTooLong(e)) {
+                        throw e;
+                    }
+                    Files.delete(fileToDelete.toPath());
+                    note = "Name too long for the trash, deleted permanently";
+                }
             } else {
-                System.err.println("Failed to delete file: " + fileName);
+                Files.delete(fileToDelete.toPath());
+            }
+        
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                index.remove(fileName);
+            }
+            return note == null ? FileOperationResult.of(Status.DELETED) : FileOperationResult.of(Status.DELETED, note);
+        } catch (NoSuchFileException e) {
+            return FileOperationResult.of(Status.NOT_FOUND); // Deleted by someone else in the meantime
+        } catch (InvalidPathException e) {
+            return FileOperationResult.of(Status.INVALID_NAME);
+        } catch (Exception e) {
+            return failure(Operation.DELETE_FILE, e);
+        } finally {
+            operationStats.record(Operation.DELETE_FILE, start);
+        }
+    }
+    
+    /**
+     * Checks if the file system refused a name for being too long (ENAMETOOLONG)
+     */
+    private static boolean isNameTooLong(FileSystemException e) {
+        return e.getReason() != null && e.getReason().toLowerCase().contains("name too long");
+    }
+    
+    /**
+     * Counts a real failure and wraps it in a result. Expected outcomes
+     * such as NOT_FOUND never come through here
+     */
+    private FileOperationResult failure(Operation operation, Exception e) {
+        operationStats.recordError(operation, e);
+        Status status;
+        if (e instanceof AccessDeniedException || e instanceof SecurityException) {
+            status = Status.ACCESS_DENIED;
+        } else if (e instanceof IOException) {
+            status = Status.IO_ERROR;
+        } else {
+            status = Status.FAILED;
+        }
+        return FileOperationResult.failure(status, e.getMessage(), e);
+    }
+    
+    /**
+     * Creates many files at once, fanning the work out on virtual threads.
+     * Nothing is printed; every name gets an outcome in the returned summary
+     * @param fileNames Names of the files to create
+     * @return Per-file outcomes in input order
+     */
+    public BatchResult addFiles(Collection<String> fileNames) {
+        return runBatch(fileNames, this::tryAddFile);
+    }
+    
+    /**
+     * Deletes many files at once, fanning the work out on virtual threads.
+     * Nothing is printed; every name gets an outcome in the returned summary
+     * @param fileNames Names of the files to delete (case-sensitive)
+     * @return Per-file outcomes in input order
+     */
+    public BatchResult deleteFiles(Collection<String> fileNames) {
+        return runBatch(fileNames, this::tryDeleteFile);
+    }
+    
+    /**
+     * Sets how many files a batch operation works on at the same time
+     * @param concurrency Maximum number of concurrent operations
+     */
+    public void setBatchConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Batch concurrency must be at least 1");
+        }
+        this.batchConcurrency = concurrency;
+    }
+    
+    /**
+     * Gets how many files a batch operation works on at the same time
+     * @return Maximum number of concurrent operations
+     */
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+    
+    /**
+     * Runs one operation per name on virtual threads, with at most
+     * batchConcurrency operations in flight
+     */
+    private BatchResult runBatch(Collection<String> fileNames, Function<String, FileOperationResult> operation) {
+        String[] names = fileNames.toArray(new String[0]);
+        Status[] outcomes = new Status[names.length];
+        String[] details = new String[names.length];
+        Semaphore permits = new Semaphore(batchConcurrency);
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < names.length; i++) {
+                final int index = i;
+                permits.acquire();
+                
+                executor.submit(() -> {
+                    try {
+                        FileOperationResult result = operation.apply(names[index]);
+                        outcomes[index] = result.getStatus();
+                        details[index] = result.getDetail();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Names never submitted because the batch was interrupted
+        for (int i = 0; i < outcomes.length; i++) {
+            if (outcomes[i] == null) {
+                outcomes[i] = Status.FAILED;
+                details[i] = "Batch interrupted";
+            }
+        }
+        
+        return new BatchResult(names, outcomes, details);
+    }
+    
+    /**
+     * Switches deletes to trash mode with a 7 day retention window
+     * @return true if trash mode is enabled
+     */
+    public boolean enableTrash() {
+        return enableTrash(DEFAULT_TRASH_RETENTION, DEFAULT_PURGE_BYTES_PER_SECOND);
+    }
+    
+    /**
+     * Switches deletes to trash mode: files are moved into the trash and a
+     * background thread purges them once the retention window has passed
+     * @param retention How long deleted files can be restored
+     * @param purgeBytesPerSecond Most bytes purged per second, or 0 for no limit
+     * @return true if trash mode is enabled
+     */
+    public synchronized boolean enableTrash(Duration retention, long purgeBytesPerSecond) {
+        try {
+            trash.startPurger(retention, purgeBytesPerSecond);
+            trashEnabled = true;
+            return true;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error enabling trash: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Goes back to permanent deletes and stops the purger. Files already in
+     * the trash stay restorable
+     */
+    public synchronized void disableTrash() {
+        trashEnabled = false;
+        trash.close();
+    }
+    
+    /**
+     * Checks if deleted files are moved to the trash
+     * @return true if trash mode is enabled, false otherwise
+     */
+    public boolean isTrashEnabled() {
+        return trashEnabled;
+    }
+    
+    /**
+     * Gets how long deleted files stay restorable in trash mode
+     * @return Retention window
+     */
+    public Duration getTrashRetention() {
+        return trash.getRetention();
+    }
+    
+    /**
+     * Restores the most recently deleted copy of a file from the trash
+     * @param fileName Name the file had when it was deleted (case-sensitive)
+     * @return true if the file was restored, false otherwise
+     */
+    public boolean restoreFile(String fileName) {
+        FileOperationResult result = tryRestoreFile(fileName);
+        switch (result.getStatus()) {
+            case RESTORED:
+                System.out.println("File restored to: " + new File(workingDirectory, fileName).getAbsolutePath());
+                return true;
+            case INVALID_NAME:
+                System.err.println("Error: File name cannot be empty");
+                return false;
+            case NOT_FOUND:
+                return false; // Not in the trash
+            case ALREADY_EXISTS:
+                System.err.println("Error: '" + fileName + "' already exists. Delete it before restoring.");
+                return false;
+            case ACCESS_DENIED:
+                System.err.println("Security Error: Permission denied to restore file '" + fileName + "': " + result.getDetail());
+                return false;
+            default:
+                System.err.println("IO Error while restoring file '" + fileName + "': " + result.getDetail());
                 return false;
+        }
+    }
+    
+    /**
+     * Restores a file from the trash without printing anything
+     * @param fileName Name the file had when it was deleted (case-sensitive)
+     * @return RESTORED, INVALID_NAME, NOT_FOUND, ALREADY_EXISTS, ACCESS_DENIED, IO_ERROR or FAILED
+     */
+    public FileOperationResult tryRestoreFile(String fileName) {
+        try {
+            if (fileName == null || fileName.trim().isEmpty()) {
+                return FileOperationResult.of(Status.INVALID_NAME);
+            }
+            
+            if (!trash.restore(fileName)) {
+                return FileOperationResult.of(Status.NOT_FOUND);
             }
             
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                index.add(fileName);
+            }
+            return FileOperationResult.of(Status.RESTORED);
+        } catch (FileAlreadyExistsException e) {
+            return FileOperationResult.of(Status.ALREADY_EXISTS);
+        } catch (AccessDeniedException | SecurityException e) {
+            return FileOperationResult.failure(Status.ACCESS_DENIED, e.getMessage(), e);
+        } catch (IOException e) {
+            return FileOperationResult.failure(Status.IO_ERROR, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            return FileOperationResult.failure(Status.FAILED, e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Permanently deletes every file in the trash
+     * @return Number of files deleted, or -1 if the trash could not be emptied
+     */
+    public int emptyTrash() {
+        try {
+            return trash.empty();
+        } catch (IOException e) {
+            System.err.println("IO Error while emptying trash: " + e.getMessage());
+            return -1;
         } catch (SecurityException e) {
-            System.err.println("Security Error: Permission denied to delete file '" + fileName + "': " + e.getMessage());
-            return false;
-        } catch (Exception e) {
-            System.err.println("Unexpected error while deleting file '" + fileName + "': " + e.getMessage());
-            return false;
+            System.err.println("Security Error: Permission denied to empty trash: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Lists the files in the trash
+     * @return Trashed files, most recently deleted first
+     */
+    public List<Trash.Entry> listTrash() {
+        try {
+            return trash.list();
+        } catch (IOException e) {
+            System.err.println("IO Error while reading trash: " + e.getMessage());
+            return new ArrayList<>();
         }
     }
     
@@ -171,12 +817,11 @@ public class FileManager {
                 return false;
             }
             
-            File fileToSearch = new File(workingDirectory, fileName);
+            FileDetails details = findFile(fileName);
             
-            // Check if file exists and is actually a file
-            if (fileToSearch.exists() && fileToSearch.isFile()) {
+            if (details != null) {
                 // Display file details
-                displayFileDetails(fileToSearch);
+                displayFileDetails(details);
                 return true;
             } else {
                 return false; // File not found
@@ -188,48 +833,234 @@ public class FileManager {
         }
     }
     
+    /**
+     * Looks up a file in the current directory (case-sensitive).
+     * A single attribute read answers existence, type, size, modification
+     * time and permissions
+     * @param fileName Name of the file to look up
+     * @return Details of the file, or null if no such file exists
+     * @throws IOException if the file attributes cannot be read
+     */
+    public FileDetails findFile(String fileName) throws IOException {
+        FileOperationResult result = trySearchFile(fileName);
+        if (result.isSuccess()) {
+            return result.getFileDetails();
+        }
+        if (!result.getStatus().isError()) {
+            return null;
+        }
+        if (result.getCause() instanceof IOException e) {
+            throw e;
+        }
+        throw new IOException(result.getDetail(), result.getCause());
+    }
+    
+    /**
+     * Looks up a file without printing or throwing
+     * @param fileName Name of the file to look up (case-sensitive)
+     * @return FOUND with the file details, or INVALID_NAME, NOT_FOUND,
+     *         NOT_A_FILE, ACCESS_DENIED, IO_ERROR or FAILED
+     */
+    public FileOperationResult trySearchFile(String fileName) {
+        long start = System.nanoTime();
+        try {
+            if (fileName == null || fileName.trim().isEmpty()) {
+                return FileOperationResult.of(Status.INVALID_NAME);
+            }
+        
+            FileDetails details = FileDetails.read(new File(workingDirectory, fileName).toPath());
+            if (details == null) {
+                return FileOperationResult.of(Status.NOT_FOUND);
+            }
+        
+            // Only report files, not directories
+            return details.regularFile() ? FileOperationResult.found(details) : FileOperationResult.of(Status.NOT_A_FILE);
+        } catch (InvalidPathException e) {
+            return FileOperationResult.of(Status.INVALID_NAME); // Name cannot exist on this file system
+        } catch (Exception e) {
+            return failure(Operation.SEARCH_FILE, e);
+        } finally {
+            operationStats.record(Operation.SEARCH_FILE, start);
+        }
+    }
+    
+    /**
+     * Writes the record of a single file, if it exists. The writer is not flushed
+     * @param fileName Name of the file (case-sensitive)
+     * @param writer Receives the file record
+     * @return true if the file was found and written, false otherwise
+     * @throws IOException if the attributes cannot be read or the output cannot be written
+     */
+    public boolean writeFileRecord(String fileName, RecordWriter writer) throws IOException {
+        FileDetails details = findFile(fileName);
+        if (details == null) {
+            return false;
+        }
+        writer.writeFile(details);
+        return true;
+    }
+    
     /**
      * Gets a list of all files in the current directory
      * @return List of file names
      */
     private List<String> getFileList() {
-        List<String> fileNames = new ArrayList<>();
-        
+        long start = System.nanoTime();
         try {
-            File[] files = workingDirectory.listFiles();
-            
-            if (files != null) {
-                for (File file : files) {
-                    // Only include files, not directories
-                    if (file.isFile()) {
-                        fileNames.add(file.getName());
-                    }
-                }
+            DirectoryIndex index = directoryIndex;
+            if (index != null) {
+                return new ArrayList<>(index.getFileNames());
             }
+        
+            List<String> fileNames = new ArrayList<>();
+            scanFiles((name, attributes) -> fileNames.add(name));
+            return fileNames;
+        } catch (RuntimeException e) {
+            operationStats.recordError(Operation.LIST_FILES, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.LIST_FILES, start);
+        }
+    }
+    
+    /**
+     * Gets the names of all files in the current directory as a hash set,
+     * for callers that look names up many times
+     * @return Mutable copy of the file names
+     */
+    public Set<String> getFileNameSet() {
+        DirectoryIndex index = directoryIndex;
+        if (index != null) {
+            return new HashSet<>(index.getFileNames());
+        }
+        
+        Set<String> fileNames = new HashSet<>();
+        scanFiles((name, attributes) -> fileNames.add(name));
+        return fileNames;
+    }
+    
+    /**
+     * Runs the configured listing backend over the working directory
+     * @param visitor Receives each regular file
+     */
+    private void scanFiles(ListingBackend.EntryVisitor visitor) {
+        try {
+            listingBackend.scan(workingDirectory.toPath(), visitor);
+        } catch (IOException e) {
+            System.err.println("Error reading directory: " + e.getMessage());
+            throw new RuntimeException("Cannot read directory", e);
         } catch (SecurityException e) {
             System.err.println("Security Error: Permission denied to access directory: " + e.getMessage());
             throw new RuntimeException("Cannot access directory", e);
         }
+    }
+    
+    /**
+     * Streams the directory and keeps the smallest file names in a bounded
+     * max-heap (top-K selection) instead of sorting the whole listing
+     * @param afterName Exclusive lower bound, or null for no bound
+     * @param limit Number of names to keep
+     * @return The smallest names above the bound, in ascending order
+     */
+    private List<String> selectSmallest(String afterName, int limit) {
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
         
-        return fileNames;
+        PriorityQueue<String> heap = new PriorityQueue<>(Math.min(limit, 1024), Collections.reverseOrder());
+        
+        scanFiles((name, attributes) -> {
+            if (afterName != null && name.compareTo(afterName) <= 0) {
+                return;
+            }
+            if (heap.size() == limit && name.compareTo(heap.peek()) >= 0) {
+                return;
+            }
+            
+            heap.offer(name);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        
+        String[] page = new String[heap.size()];
+        for (int i = page.length - 1; i >= 0; i--) {
+            page[i] = heap.poll();
+        }
+        
+        List<String> result = new ArrayList<>(page.length);
+        Collections.addAll(result, page);
+        return result;
     }
     
     /**
-     * Displays detailed information about a file
-     * @param file File object to display details for
+     * Sorts the names of all files in the directory within the memory budget
+     * @return Sorted names, which must be closed
+     * @throws IOException if the directory or a sort run cannot be read
      */
-    private void displayFileDetails(File file) {
+    private ExternalSorter.SortedNames sortFileNames() throws IOException {
+        ExternalSorter.SortBuffer buffer = new ExternalSorter(sortMemoryBudget).newBuffer();
+        
         try {
-            System.out.println("File Details:");
-            System.out.println("  Name: " + file.getName());
-            System.out.println("  Path: " + file.getAbsolutePath());
-            System.out.println("  Size: " + formatFileSize(file.length()));
-            System.out.println("  Last Modified: " + new java.util.Date(file.lastModified()));
-            System.out.println("  Readable: " + file.canRead());
-            System.out.println("  Writable: " + file.canWrite());
-            System.out.println("  Executable: " + file.canExecute());
-        } catch (Exception e) {
-            System.err.println("Error retrieving file details: " + e.getMessage());
+            listingBackend.scan(workingDirectory.toPath(), (name, attributes) -> buffer.add(name));
+        } catch (IOException | RuntimeException e) {
+            buffer.discard();
+            throw e;
+        }
+        
+        return buffer.finish();
+    }
+    
+    /**
+     * Copies one page from an already sorted sequence of names
+     * @param names Sorted names
+     * @param offset Number of names to skip
+     * @param limit Maximum number of names to copy
+     * @return Names on the page
+     */
+    private List<String> copyPage(Iterator<String> names, int offset, int limit) {
+        List<String> page = new ArrayList<>(Math.min(limit, 1024));
+        
+        for (int skipped = 0; skipped < offset && names.hasNext(); skipped++) {
+            names.next();
+        }
+        while (page.size() < limit && names.hasNext()) {
+            page.add(names.next());
+        }
+        
+        return page;
+    }
+    
+    /**
+     * Displays detailed information about a file
+     * @param details Details of the file to display
+     */
+    private void displayFileDetails(FileDetails details) {
+        RENDERER.get()
+            .line("File Details:")
+            .line("  Name: " + details.name())
+            .line("  Path: " + details.path())
+            .line("  Size: " + formatFileSize(details.size()))
+            .line("  Last Modified: " + new java.util.Date(details.lastModified()))
+            .line("  Readable: " + details.readable())
+            .line("  Writable: " + details.writable())
+            .line("  Executable: " + details.executable())
+            .flush();
+    }
+    
+    /**
+     * Formats a duration in its largest whole unit, e.g. "7 days" or "90 minutes"
+     * @param duration Duration to format
+     * @return Formatted duration string
+     */
+    static String formatDuration(Duration duration) {
+        if (duration.toDays() > 0 && duration.equals(Duration.ofDays(duration.toDays()))) {
+            return duration.toDays() + (duration.toDays() == 1 ? " day" : " days");
+        } else if (duration.toHours() > 0 && duration.equals(Duration.ofHours(duration.toHours()))) {
+            return duration.toHours() + (duration.toHours() == 1 ? " hour" : " hours");
+        } else {
+            long minutes = duration.toMinutes();
+            return minutes + (minutes == 1 ? " minute" : " minutes");
         }
     }
     
@@ -238,7 +1069,7 @@ public class FileManager {
      * @param size File size in bytes
      * @return Formatted size string
      */
-    private String formatFileSize(long size) {
+    static String formatFileSize(long size) {
         if (size < 1024) {
             return size + " bytes";
         } else if (size < 1024 * 1024) {
@@ -263,6 +1094,10 @@ public class FileManager {
      * @return Number of files
      */
     public int getFileCount() {
+        DirectoryIndex index = directoryIndex;
+        if (index != null) {
+            return index.size();
+        }
         return getFileList().size();
     }
     
@@ -271,24 +1106,198 @@ public class FileManager {
      * @return true if directory is empty, false otherwise
      */
     public boolean isDirectoryEmpty() {
+        DirectoryIndex index = directoryIndex;
+        if (index != null) {
+            return index.isEmpty();
+        }
         return getFileList().isEmpty();
     }
     
     /**
-     * Gets file names that match a pattern (for future enhancement)
+     * Gets file names that contain a pattern, ignoring case
      * @param pattern Pattern to match
      * @return List of matching file names
      */
     public List<String> searchFilesByPattern(String pattern) {
-        List<String> matchingFiles = new ArrayList<>();
-        List<String> allFiles = getFileList();
-        
-        for (String fileName : allFiles) {
-            if (fileName.toLowerCase().contains(pattern.toLowerCase())) {
-                matchingFiles.add(fileName);
+        return searchFiles(pattern, SearchMode.SUBSTRING);
+    }
+    
+    /**
+     * Gets file names that match a pattern in the given search mode.
+     * Glob and regex patterns are compiled once and kept in a bounded cache
+     * @param pattern Pattern to match
+     * @param mode Substring, glob or regex matching
+     * @return List of matching file names
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    public List<String> searchFiles(String pattern, SearchMode mode) {
+        long start = System.nanoTime();
+        try {
+            DirectoryIndex index = directoryIndex;
+            if (mode == SearchMode.SUBSTRING && index != null) {
+                return index.search(pattern);
             }
+            
+            NameMatcher matcher = matcherCache.newMatcher(pattern, mode);
+            Iterable<String> allFiles = index != null ? index.getFileNames() : getFileList();
+            List<String> matchingFiles = new ArrayList<>();
+            
+            for (String fileName : allFiles) {
+                if (matcher.matches(fileName)) {
+                    matchingFiles.add(fileName);
+                }
+            }
+            
+            return matchingFiles;
+        } catch (RuntimeException e) {
+            operationStats.recordError(Operation.PATTERN_SEARCH, e);
+            throw e;
+        } finally {
+            operationStats.record(Operation.PATTERN_SEARCH, start);
         }
+    }
+    
+    /**
+     * Searches the working directory and all of its subdirectories in
+     * parallel. Matches are handed to the callback as soon as they are
+     * found, and the walk stops once options.getMaxResults() are reported
+     * @param pattern Pattern to match against file names
+     * @param mode Substring, glob or regex matching
+     * @param options Parallelism, depth, symlink and result-limit settings
+     * @param onMatch Receives each match as a path relative to the working
+     *                directory; called from worker threads, so it must be thread-safe
+     * @return Number of matches reported
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    public int searchRecursive(String pattern, SearchMode mode, TreeSearchOptions options, 
+                               Consumer<String> onMatch) {
+        // Compile up front so an invalid pattern fails before any work starts
+        matcherCache.newMatcher(pattern, mode);
+        
+        TreeSearch search = new TreeSearch(workingDirectory.toPath(), 
+            () -> matcherCache.newMatcher(pattern, mode), options, onMatch);
+        return search.run();
+    }
+    
+    /**
+     * Searches the working directory tree and collects the matches
+     * @param pattern Pattern to match against file names
+     * @param mode Substring, glob or regex matching
+     * @param options Parallelism, depth, symlink and result-limit settings
+     * @return Matching paths relative to the working directory, in ascending order
+     */
+    public List<String> searchRecursive(String pattern, SearchMode mode, TreeSearchOptions options) {
+        List<String> matches = Collections.synchronizedList(new ArrayList<>());
+        searchRecursive(pattern, mode, options, matches::add);
+        
+        List<String> sorted = new ArrayList<>(matches);
+        Collections.sort(sorted);
+        return sorted;
+    }
+    
+    /**
+     * Finds files with byte-identical content, hashing on one worker per core
+     * @return Duplicate groups, the most reclaimable first
+     * @throws IOException if the directory cannot be listed
+     */
+    public DuplicateFinder.Report findDuplicates() throws IOException {
+        return new DuplicateFinder(workingDirectory.toPath(), listingBackend,
+                                   Runtime.getRuntime().availableProcessors()).run();
+    }
+    
+    /**
+     * Totals the space used under each subdirectory, walking on one worker
+     * per core. Directories unchanged since the last report are not listed again
+     * @return Totals and largest files for the tree and each direct subdirectory
+     * @throws IOException if the directory cannot be read
+     */
+    public DiskUsage.Report reportDiskUsage() throws IOException {
+        return diskUsage.report();
+    }
+    
+    /**
+     * Prepares a search for text inside the files, scanned on one worker per
+     * core. Call run() on the result; it can be cancelled from another thread
+     * @param text Text to find, case-sensitive
+     * @param maxMatches Most matches to report
+     * @return Search ready to run
+     */
+    public ContentSearcher newContentSearch(String text, int maxMatches) {
+        return new ContentSearcher(workingDirectory.toPath(), listingBackend, text, maxMatches,
+                                   Runtime.getRuntime().availableProcessors(),
+                                   ContentSearcher.DEFAULT_CHUNK_BYTES);
+    }
+    
+    /**
+     * Switches to indexed mode: the directory is scanned once and then
+     * kept up to date by a WatchService, so counts, listings and pattern
+     * searches are answered from memory
+     * @return true if the index was built, false otherwise
+     */
+    public boolean enableIndexing() {
+        return enableIndexing(false);
+    }
+    
+    /**
+     * Switches to indexed mode. A persistent index is saved to
+     * .lockedme/index.snap when indexing is disabled, and the next start
+     * maps that snapshot instead of scanning the directory again
+     * @param persistent true to start from and save to the snapshot
+     * @return true if the index was built, false otherwise
+     */
+    public synchronized boolean enableIndexing(boolean persistent) {
+        if (directoryIndex != null) {
+            return true;
+        }
+        
+        try {
+            Path directory = workingDirectory.toPath();
+            directoryIndex = DirectoryIndex.open(directory, listingBackend,
+                                                 persistent ? IndexSnapshot.fileFor(directory) : null);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error building directory index: " + e.getMessage());
+            return false;
+        } catch (SecurityException e) {
+            System.err.println("Security Error: Permission denied to watch directory: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Leaves indexed mode, saves a persistent index and stops the directory watcher
+     */
+    public synchronized void disableIndexing() {
+        DirectoryIndex index = directoryIndex;
+        directoryIndex = null;
         
-        return matchingFiles;
+        if (index != null) {
+            try {
+                index.saveSnapshot();
+            } catch (IOException | SecurityException e) {
+                System.err.println("Error saving directory index: " + e.getMessage());
+            }
+            try {
+                index.close();
+            } catch (IOException e) {
+                System.err.println("Error closing directory index: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Checks if the file manager is answering queries from the directory index
+     * @return true if indexed mode is enabled, false otherwise
+     */
+    public boolean isIndexingEnabled() {
+        return directoryIndex != null;
+    }
+    
+    /**
+     * Gets the call counts, latencies and errors of this file manager's operations
+     * @return Live statistics, updated by every call
+     */
+    public OperationStats getOperationStats() {
+        return operationStats;
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package main;
+
+/**
+ * FileNameSuggester.java - Collision-aware File Name Suggestions
+ * Turns raw input into a sanitized file name that is not taken yet. When
+ * the sanitized name already exists, "-1", "-2", ... is inserted before
+ * the extension (report.txt, report-1.txt, report-2.txt) until it is free.
+ *
+ * Taken names are held in a hash set, and the next suffix to try is
+ * remembered per sanitized name, so thousands of inputs that sanitize to
+ * the same name cost one set lookup each instead of re-probing every
+ * suffix from 1. Each suggestion is reserved, so later calls never repeat it.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class FileNameSuggester {
+
+    private static final int MAX_FILENAME_LENGTH = 255;
+
+    private final InputValidator inputValidator;
+    private final Set<String> takenNames;
+    private final Map<String, Integer> nextSuffixes = new HashMap<>();
+
+    /**
+     * Constructor
+     * @param inputValidator Sanitizes the raw names
+     * @param takenNames Names that must not be suggested; copied
+     */
+    public FileNameSuggester(InputValidator inputValidator, Set<String> takenNames) {
+        this.inputValidator = inputValidator;
+        this.takenNames = new HashSet<>(takenNames);
+    }
+
+    /**
+     * Creates a suggester for the files currently in a directory
+     * @param fileManager Directory to avoid collisions with
+     * @param inputValidator Sanitizes the raw names
+     * @return Suggester seeded with the directory's file names
+     */
+    public static FileNameSuggester forDirectory(FileManager fileManager, InputValidator inputValidator) {
+        return new FileNameSuggester(inputValidator, fileManager.getFileNameSet());
+    }
+
+    /**
+     * Suggests a sanitized, unused name for some raw input and reserves it
+     * @param rawName Name as entered, may be invalid
+     * @return Sanitized name with an extension that no file or earlier suggestion uses
+     */
+    public synchronized String suggest(String rawName) {
+        String baseName = inputValidator.suggestValidFileName(rawName);
+        if (takenNames.add(baseName)) {
+            return baseName;
+        }
+
+        int dot = baseName.lastIndexOf('.');
+        String stem = dot > 0 ? baseName.substring(0, dot) : baseName;
+        String extension = dot > 0 ? baseName.substring(dot) : "";
+
+        int suffix = nextSuffixes.getOrDefault(baseName, 1);
+        String candidate;
+        do {
+            candidate = withSuffix(stem, suffix++, extension);
+        } while (!takenNames.add(candidate));
+
+        nextSuffixes.put(baseName, suffix);
+        return candidate;
+    }
+
+    /**
+     * Checks if a name is taken by a file or an earlier suggestion
+     * @param fileName Name to check
+     * @return true if the name is taken
+     */
+    public synchronized boolean isTaken(String fileName) {
+        return takenNames.contains(fileName);
+    }
+
+    /**
+     * Builds stem-N.ext, shortening the stem if needed to stay within the
+     * file name length limit
+     */
+    private static String withSuffix(String stem, int suffix, String extension) {
+        String marker = "-" + suffix;
+        int room = MAX_FILENAME_LENGTH - marker.length() - extension.length();
+        if (stem.length() > room) {
+            stem = stem.substring(0, Math.max(0, room));
+        }
+        return stem + marker + extension;
+    }
+}
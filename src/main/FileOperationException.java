@@ -10,10 +10,11 @@ package main;
  */
 
 @SuppressWarnings("serial")
-class FileOperationException extends Exception {
+public class FileOperationException extends Exception {
     
     private String operation;
     private String fileName;
+    private FileOperationResult.Status status;
 
     public FileOperationException(String message) {
         super(message);
@@ -38,6 +39,26 @@ class FileOperationException extends Exception {
         this.fileName = fileName;
     }
     
+    /**
+     * Constructor for a failed FileOperationResult. No stack trace is
+     * captured: the status and cause already say what went wrong, and bulk
+     * callers may throw many of these
+     */
+    FileOperationException(FileOperationResult.Status status, String message, Throwable cause,
+                           String operation, String fileName) {
+        super(message, cause, false, false);
+        this.status = status;
+        this.operation = operation;
+        this.fileName = fileName;
+    }
+    
+    /**
+     * Gets the status of the failed result, or null if the exception did not come from one
+     */
+    public FileOperationResult.Status getStatus() {
+        return status;
+    }
+    
     /**
      * Gets the operation that caused the exception
      */
@@ -60,6 +81,10 @@ class FileOperationException extends Exception {
         StringBuilder sb = new StringBuilder();
         sb.append("FileOperationException: ").append(getMessage());
         
+        if (status != null) {
+            sb.append(" [Status: ").append(status).append("]");
+        }
+        
         if (operation != null) {
             sb.append(" [Operation: ").append(operation).append("]");
         }
@@ -0,0 +1,166 @@
+package main;
+
+/**
+ * FileOperationResult.java - Outcome of a Single File Operation
+ * Returned by the try* methods of FileManager instead of printing and
+ * returning a bare boolean. Outcomes without a detail, such as CREATED or
+ * NOT_FOUND, are shared preallocated instances, so a bulk run with many
+ * misses allocates nothing per miss. Only real failures carry a detail
+ * message and the underlying exception.
+ *
+ * Callers that prefer exceptions can use orThrow(), which throws a
+ * FileOperationException without a stack trace.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+public final class FileOperationResult {
+
+    /**
+     * What happened to the file
+     */
+    public enum Status {
+        CREATED,
+        DELETED,
+        RESTORED,
+        FOUND,
+        ALREADY_EXISTS,
+        NOT_FOUND,
+        NOT_A_FILE,
+        INVALID_NAME,
+        ACCESS_DENIED,
+        IO_ERROR,
+        FAILED;
+
+        /**
+         * @return true if the operation did what was asked
+         */
+        public boolean isSuccess() {
+            return this == CREATED || this == DELETED || this == RESTORED || this == FOUND;
+        }
+
+        /**
+         * @return true if the file system refused the operation, as opposed
+         *         to an expected answer such as NOT_FOUND
+         */
+        public boolean isError() {
+            return this == ACCESS_DENIED || this == IO_ERROR || this == FAILED;
+        }
+    }
+
+    private static final FileOperationResult[] SHARED = new FileOperationResult[Status.values().length];
+
+    static {
+        for (Status status : Status.values()) {
+            SHARED[status.ordinal()] = new FileOperationResult(status, null, null, null);
+        }
+    }
+
+    private final Status status;
+    private final String detail;
+    private final Throwable cause;
+    private final FileDetails fileDetails;
+
+    private FileOperationResult(Status status, String detail, Throwable cause, FileDetails fileDetails) {
+        this.status = status;
+        this.detail = detail;
+        this.cause = cause;
+        this.fileDetails = fileDetails;
+    }
+
+    /**
+     * Gets the shared result for a status
+     * @param status Outcome
+     * @return Preallocated result without detail
+     */
+    public static FileOperationResult of(Status status) {
+        return SHARED[status.ordinal()];
+    }
+
+    /**
+     * Creates a result that carries a note, such as a success reached
+     * another way than usual
+     * @param status Outcome
+     * @param detail What the caller should know about it
+     * @return Result carrying the detail
+     */
+    public static FileOperationResult of(Status status, String detail) {
+        return new FileOperationResult(status, detail, null, null);
+    }
+    
+    /**
+     * Creates a result for a found file
+     * @param fileDetails Attributes of the file
+     * @return FOUND result carrying the attributes
+     */
+    public static FileOperationResult found(FileDetails fileDetails) {
+        return new FileOperationResult(Status.FOUND, null, null, fileDetails);
+    }
+
+    /**
+     * Creates a result for a failure
+     * @param status Kind of failure
+     * @param detail What went wrong
+     * @param cause Underlying exception, or null
+     * @return Result carrying the detail
+     */
+    public static FileOperationResult failure(Status status, String detail, Throwable cause) {
+        return new FileOperationResult(status, detail, cause, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the operation did what was asked
+     */
+    public boolean isSuccess() {
+        return status.isSuccess();
+    }
+
+    /**
+     * Gets the error detail of a failure, or the note on a success
+     * @return Detail message, or null if there is none
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * Gets the exception behind a failure
+     * @return Underlying exception, or null if there is none
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    /**
+     * Gets the attributes of a found file
+     * @return File details for FOUND, otherwise null
+     */
+    public FileDetails getFileDetails() {
+        return fileDetails;
+    }
+
+    /**
+     * Returns this result if it succeeded, otherwise throws
+     * @param operation Name of the operation, for the exception
+     * @param fileName File the operation was on, for the exception
+     * @return This result
+     * @throws FileOperationException without a stack trace, if the operation did not succeed
+     */
+    public FileOperationResult orThrow(String operation, String fileName) throws FileOperationException {
+        if (status.isSuccess()) {
+            return this;
+        }
+        String message = detail != null ? detail : status.name();
+        throw new FileOperationException(status, message, cause, operation, fileName);
+    }
+
+    @Override
+    public String toString() {
+        return detail == null ? status.name() : status.name() + ": " + detail;
+    }
+}
@@ -0,0 +1,346 @@
+package main;
+
+/**
+ * FileServer.java - Local HTTP API
+ * Exposes one shared, warm FileManager over HTTP so other services can
+ * list, add, delete and search files without starting the application
+ * for every call. Each request runs on its own virtual thread; HTTP/1.1
+ * keep-alive lets clients reuse connections.
+ *
+ * Endpoints (NAME and query values are URL-encoded):
+ *   GET    /files                 every file, in ascending order
+ *   GET    /files/NAME            one file, or 404
+ *   PUT    /files/NAME            create a file: 201, 409 if it exists, 400 if invalid
+ *   DELETE /files/NAME            delete a file: 200, or 404
+ *   GET    /search?pattern=P[&amp;mode=substring|glob|regex]
+ *                                 files whose names match
+ *
+ * Every endpoint accepts format=jsonl (default), nul or text. Listings
+ * are file records, everything else a status record (see RecordWriter).
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class FileServer {
+
+    private static final String FILES_PATH = "/files";
+    private static final String SEARCH_PATH = "/search";
+    private static final int BACKLOG = 1024;
+
+    private final FileManager fileManager;
+    private final InputValidator inputValidator;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor; binds to the loopback interface
+     * @param fileManager File manager shared by all requests, normally a ConcurrentFileManager
+     * @param inputValidator Validates file names in requests
+     * @param port Port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public FileServer(FileManager fileManager, InputValidator inputValidator, int port) throws IOException {
+        this(fileManager, inputValidator, new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Constructor
+     * @param fileManager File manager shared by all requests
+     * @param inputValidator Validates file names in requests
+     * @param address Address to listen on
+     * @throws IOException if the address cannot be bound
+     */
+    public FileServer(FileManager fileManager, InputValidator inputValidator,
+                      InetSocketAddress address) throws IOException {
+        this.fileManager = fileManager;
+        this.inputValidator = inputValidator;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server.setExecutor(executor);
+        server.createContext(FILES_PATH, this::handleFiles);
+        server.createContext(SEARCH_PATH, this::handleSearch);
+    }
+
+    /**
+     * Starts accepting requests in the background
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving running requests a moment to finish
+     * @param delaySeconds Longest time to wait for running requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    /**
+     * Gets the port the server listens on
+     * @return Bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handles everything under /files
+     */
+    private void handleFiles(HttpExchange exchange) {
+        try {
+            drainRequestBody(exchange);
+            Map<String, String> query = parseQuery(exchange);
+            OutputFormat format = OutputFormat.parse(query.getOrDefault("format", "jsonl"));
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if (path.equals(FILES_PATH) || path.equals(FILES_PATH + "/")) {
+                if (!method.equals("GET")) {
+                    sendStatus(exchange, format, 405, "ERROR", method, path, "use GET");
+                    return;
+                }
+                sendListing(exchange, format);
+                return;
+            }
+
+            // Contexts match by prefix, so /filesreport.txt lands here too
+            if (!path.startsWith(FILES_PATH + "/")) {
+                sendStatus(exchange, format, 404, "ERROR", method, path, "no such resource");
+                return;
+            }
+
+            // getPath() has already decoded the name
+            String fileName = path.substring(FILES_PATH.length() + 1);
+            ValidationResult validation = inputValidator.validateFileName(fileName);
+            if (!validation.isValid()) {
+                int position = inputValidator.findViolation(fileName);
+                sendStatus(exchange, format, 400, FileOperationResult.Status.INVALID_NAME.name(), method, fileName,
+                           position < 0 ? validation.name() : validation.name() + "@" + position);
+                return;
+            }
+
+            switch (method) {
+                case "GET":
+                    sendFile(exchange, format, fileName);
+                    break;
+                case "PUT":
+                    sendResult(exchange, format, method, fileName, fileManager.tryAddFile(fileName));
+                    break;
+                case "DELETE":
+                    sendResult(exchange, format, method, fileName, fileManager.tryDeleteFile(fileName));
+                    break;
+                default:
+                    sendStatus(exchange, format, 405, "ERROR", method, fileName, "use GET, PUT or DELETE");
+            }
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            sendError(exchange, 500, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Handles /search
+     */
+    private void handleSearch(HttpExchange exchange) {
+        try {
+            drainRequestBody(exchange);
+            Map<String, String> query = parseQuery(exchange);
+            OutputFormat format = OutputFormat.parse(query.getOrDefault("format", "jsonl"));
+            String pattern = query.get("pattern");
+            String path = exchange.getRequestURI().getPath();
+
+            if (!path.equals(SEARCH_PATH) && !path.equals(SEARCH_PATH + "/")) {
+                sendStatus(exchange, format, 404, "ERROR", exchange.getRequestMethod(), path, "no such resource");
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("GET")) {
+                sendStatus(exchange, format, 405, "ERROR", exchange.getRequestMethod(), SEARCH_PATH, "use GET");
+                return;
+            }
+            if (pattern == null || pattern.isEmpty()) {
+                sendStatus(exchange, format, 400, "ERROR", "GET", SEARCH_PATH, "pattern is required");
+                return;
+            }
+
+            SearchMode mode = SearchMode.valueOf(query.getOrDefault("mode", "substring").toUpperCase());
+
+            // Matches are collected before the headers go out, so a bad pattern still gets a 400
+            StringBuilderWriter body = new StringBuilderWriter();
+            RecordWriter records = new RecordWriter(body, format);
+            fileManager.writeSearchResults(pattern, mode, records);
+            records.flush();
+            send(exchange, 200, format, body.toBytes());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            sendError(exchange, 500, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendListing(HttpExchange exchange, OutputFormat format) throws IOException {
+        // Length 0 means chunked: records stream out as the listing is read
+        exchange.getResponseHeaders().set("Content-Type", contentType(format));
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = responseWriter(exchange)) {
+            RecordWriter records = new RecordWriter(out, format);
+            fileManager.writeFileListing(records);
+            records.flush();
+        }
+    }
+
+    private void sendFile(HttpExchange exchange, OutputFormat format, String fileName) throws IOException {
+        FileOperationResult result = fileManager.trySearchFile(fileName);
+        if (!result.isSuccess()) {
+            sendResult(exchange, format, "GET", fileName, result);
+            return;
+        }
+
+        StringBuilderWriter body = new StringBuilderWriter();
+        RecordWriter records = new RecordWriter(body, format);
+        records.writeFile(result.getFileDetails());
+        records.flush();
+        send(exchange, 200, format, body.toBytes());
+    }
+
+    /**
+     * Sends a file operation result as a status record with the matching response code
+     */
+    private void sendResult(HttpExchange exchange, OutputFormat format, String method, String fileName,
+                            FileOperationResult result) throws IOException {
+        int code;
+        switch (result.getStatus()) {
+            case CREATED: code = 201; break;
+            case DELETED: case RESTORED: case FOUND: code = 200; break;
+            case INVALID_NAME: code = 400; break;
+            case NOT_FOUND: code = 404; break;
+            case ALREADY_EXISTS: case NOT_A_FILE: code = 409; break;
+            case ACCESS_DENIED: code = 403; break;
+            default: code = 500; break;
+        }
+        sendStatus(exchange, format, code, result.getStatus().name(), method, fileName, result.getDetail());
+    }
+
+    private void sendStatus(HttpExchange exchange, OutputFormat format, int code, String status,
+                            String command, String argument, String detail) throws IOException {
+        StringBuilderWriter body = new StringBuilderWriter();
+        RecordWriter records = new RecordWriter(body, format);
+        records.writeStatus(status, command, argument, detail);
+        records.flush();
+        send(exchange, code, format, body.toBytes());
+    }
+
+    /**
+     * Reports an error, unless the response has already started
+     */
+    private void sendError(HttpExchange exchange, int code, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return; // Headers are out; closing the exchange ends the response
+        }
+        try {
+            sendStatus(exchange, OutputFormat.JSON_LINES, code, "ERROR", exchange.getRequestMethod(),
+                       exchange.getRequestURI().getPath(), String.valueOf(message));
+        } catch (IOException e) {
+            // Client has gone away
+        }
+    }
+
+    private static void send(HttpExchange exchange, int code, OutputFormat format, byte[] body) throws IOException {
+        // A fixed length keeps the connection reusable for the next request
+        exchange.getResponseHeaders().set("Content-Type", contentType(format));
+        exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static Writer responseWriter(HttpExchange exchange) {
+        return new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+    }
+
+    private static String contentType(OutputFormat format) {
+        switch (format) {
+            case JSON_LINES:
+                return "application/jsonl; charset=utf-8";
+            case NUL:
+                return "application/octet-stream";
+            default:
+                return "text/plain; charset=utf-8";
+        }
+    }
+
+    /**
+     * Reads and discards any request body, which keep-alive requires
+     */
+    private static void drainRequestBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                           URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Collects a small response body so its length can be sent up front
+     */
+    private static class StringBuilderWriter extends Writer {
+
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            text.append(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        byte[] toBytes() {
+            return text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package main;
+
+/**
+ * FrameRenderer.java - Buffered Console Output
+ * Collects a whole menu frame or listing page in a reusable buffer and
+ * writes it to the console in one go, instead of one println (and one
+ * flush) per line. Very large frames are written in blocks of
+ * FLUSH_THRESHOLD characters so memory stays bounded. The buffers start
+ * small and grow with the largest frame written, so a renderer that only
+ * ever prints a few lines stays a few hundred bytes.
+ *
+ * Output goes to whatever System.out is when the frame is flushed, so
+ * callers that redirect System.out still capture everything.
+ * A renderer is not thread-safe; use one per thread.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+public class FrameRenderer {
+
+    private static final int FLUSH_THRESHOLD = 1 << 16;
+    private static final int MAX_BYTES = FLUSH_THRESHOLD * 4;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final StringBuilder frame = new StringBuilder();
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+    private CharsetEncoder encoder;
+
+    /**
+     * Appends a line of text
+     * @param text Text of the line
+     * @return This renderer
+     */
+    public FrameRenderer line(String text) {
+        frame.append(text).append(LINE_SEPARATOR);
+        writeIfFull();
+        return this;
+    }
+
+    /**
+     * Appends a numbered line, e.g. "12. report.txt"
+     * @param number Line number
+     * @param text Text after the number
+     * @return This renderer
+     */
+    public FrameRenderer line(long number, String text) {
+        frame.append(number).append(". ").append(text).append(LINE_SEPARATOR);
+        writeIfFull();
+        return this;
+    }
+
+    /**
+     * Appends an empty line
+     * @return This renderer
+     */
+    public FrameRenderer line() {
+        frame.append(LINE_SEPARATOR);
+        writeIfFull();
+        return this;
+    }
+
+    /**
+     * Appends text without ending the line, e.g. an input prompt
+     * @param text Text to append
+     * @return This renderer
+     */
+    public FrameRenderer text(String text) {
+        frame.append(text);
+        writeIfFull();
+        return this;
+    }
+
+    /**
+     * Writes the buffered frame to the console and flushes it once
+     */
+    public void flush() {
+        PrintStream out = System.out;
+        write(out);
+        out.flush();
+    }
+
+    private void writeIfFull() {
+        if (frame.length() >= FLUSH_THRESHOLD) {
+            write(System.out);
+        }
+    }
+
+    /**
+     * Encodes the buffered characters into the reusable byte buffer and
+     * hands them to the stream as whole blocks
+     */
+    private void write(PrintStream out) {
+        if (frame.length() == 0) {
+            return;
+        }
+
+        CharsetEncoder charsetEncoder = encoderFor(out).reset();
+        CharBuffer chars = CharBuffer.wrap(frame);
+        ensureCapacity(charsetEncoder, frame.length());
+
+        // A single line longer than the byte buffer overflows it; drain and go on
+        while (charsetEncoder.encode(chars, bytes, true).isOverflow()) {
+            drain(out);
+        }
+        while (charsetEncoder.flush(bytes).isOverflow()) {
+            drain(out);
+        }
+        drain(out);
+
+        frame.setLength(0);
+    }
+
+    /**
+     * Grows the byte buffer to fit a frame of the given length, up to MAX_BYTES
+     */
+    private void ensureCapacity(CharsetEncoder charsetEncoder, int chars) {
+        long needed = (long) Math.ceil(chars * (double) charsetEncoder.maxBytesPerChar());
+        if (needed > bytes.capacity() && bytes.capacity() < MAX_BYTES) {
+            bytes = ByteBuffer.allocate((int) Math.min(Math.max(needed, 2L * bytes.capacity()), MAX_BYTES));
+        }
+    }
+
+    private void drain(PrintStream out) {
+        out.write(bytes.array(), 0, bytes.position());
+        bytes.clear();
+    }
+
+    private CharsetEncoder encoderFor(PrintStream out) {
+        if (encoder == null || !encoder.charset().equals(out.charset())) {
+            // Same replacement behaviour as PrintStream for unmappable characters
+            encoder = out.charset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return encoder;
+    }
+}
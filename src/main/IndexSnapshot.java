@@ -0,0 +1,173 @@
+package main;
+
+/**
+ * IndexSnapshot.java - On-disk Copy of the Directory Index
+ * Saves the indexed names to .lockedme/index.snap, so a restart can map
+ * one file instead of listing and stat-ing the whole directory.
+ *
+ * Layout (big-endian, fixed-width fields):
+ *   header   magic, version, directory mtime (ns), directory entry count,
+ *            name count, names length
+ *   entries  one 8 byte slot per name, sorted by name: name offset, name length
+ *   names    UTF-8 bytes of every name, back to back
+ *
+ * The directory mtime and entry count are the ones seen when the index was
+ * last checked against the directory. The entry count covers everything
+ * the directory lists, subdirectories included, so comparing it needs only
+ * a name listing. If both still match, no file has been created, deleted
+ * or renamed since, and the snapshot can be used as-is.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+public final class IndexSnapshot {
+
+    /** Snapshot file name inside the data directory */
+    public static final String FILE_NAME = "index.snap";
+
+    /** Recorded in place of a directory mtime when the snapshot must be refreshed before use */
+    public static final long STALE = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x4C4D4958; // "LMIX"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 8;
+
+    private IndexSnapshot() {
+    }
+
+    /**
+     * What the directory looked like when the snapshot was taken
+     * @param directoryModified Directory mtime in nanoseconds, or STALE
+     * @param directoryEntries Number of entries the directory listed
+     */
+    public record Header(long directoryModified, int directoryEntries) {
+    }
+
+    /**
+     * Gets where the snapshot of a directory is kept
+     * @param directory Managed directory
+     * @return Snapshot file path
+     */
+    public static Path fileFor(Path directory) {
+        return directory.resolve(FileManager.DATA_DIRECTORY).resolve(FILE_NAME);
+    }
+
+    /**
+     * Maps a snapshot and passes every name to the visitor, in ascending
+     * order. The whole layout is validated before the first name is visited
+     * @param file Snapshot file
+     * @param visitor Receives the names
+     * @return Directory state recorded with the snapshot
+     * @throws java.nio.file.NoSuchFileException if there is no snapshot
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public static Header read(Path file, Consumer<String> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE) {
+                throw corrupt(file);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw corrupt(file);
+            }
+
+            long directoryModified = buffer.getLong(8);
+            int directoryEntries = buffer.getInt(16);
+            int entryCount = buffer.getInt(20);
+            long namesLength = buffer.getLong(24);
+            long namesStart = HEADER_BYTES + (long) entryCount * ENTRY_BYTES;
+            if (directoryEntries < 0 || entryCount < 0 || namesLength < 0 || namesStart + namesLength != fileSize) {
+                throw corrupt(file);
+            }
+
+            for (int i = 0; i < entryCount; i++) {
+                int slot = HEADER_BYTES + i * ENTRY_BYTES;
+                int offset = buffer.getInt(slot);
+                int length = buffer.getInt(slot + 4);
+                if (offset < 0 || length <= 0 || (long) offset + length > namesLength) {
+                    throw corrupt(file);
+                }
+            }
+
+            byte[] name = new byte[256];
+            for (int i = 0; i < entryCount; i++) {
+                int slot = HEADER_BYTES + i * ENTRY_BYTES;
+                int length = buffer.getInt(slot + 4);
+                if (length > name.length) {
+                    name = new byte[length];
+                }
+                buffer.get((int) namesStart + buffer.getInt(slot), name, 0, length);
+                visitor.accept(new String(name, 0, length, StandardCharsets.UTF_8));
+            }
+            return new Header(directoryModified, directoryEntries);
+        }
+    }
+
+    /**
+     * Writes a snapshot next to the target and renames it into place, so a
+     * crash never leaves a half-written snapshot behind
+     * @param file Snapshot file
+     * @param header Directory state the names match
+     * @param fileNames Indexed names, sorted
+     * @throws IOException if the snapshot cannot be written or would exceed 2 GB
+     */
+    public static void write(Path file, Header header, Collection<String> fileNames) throws IOException {
+        byte[][] names = new byte[fileNames.size()][];
+        long namesLength = 0;
+        int count = 0;
+        for (String fileName : fileNames) {
+            names[count] = fileName.getBytes(StandardCharsets.UTF_8);
+            namesLength += names[count++].length;
+        }
+        if (HEADER_BYTES + (long) names.length * ENTRY_BYTES + namesLength > Integer.MAX_VALUE) {
+            throw new IOException("Directory index is too large to snapshot");
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(FILE_NAME + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(header.directoryModified());
+            out.writeInt(header.directoryEntries());
+            out.writeInt(names.length);
+            out.writeLong(namesLength);
+
+            int offset = 0;
+            for (byte[] name : names) {
+                out.writeInt(offset);
+                out.writeInt(name.length);
+                offset += name.length;
+            }
+
+            for (byte[] name : names) {
+                out.write(name);
+            }
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static IOException corrupt(Path file) {
+        return new IOException("Corrupt index snapshot: " + file);
+    }
+}
@@ -9,25 +9,56 @@ package main;
  * @company Company LockedMe.com pvt Ltd..
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class InputValidator {
     
-    // Regular expressions for validation
-    private static final Pattern VALID_FILENAME_PATTERN = 
-        Pattern.compile("^[a-zA-Z0-9][a-zA-Z0-9._\\-\\s]*[a-zA-Z0-9]$|^[a-zA-Z0-9]$");
+    // Character classes for the single-pass file name check (ASCII only;
+    // every other character fails the format rule)
+    private static final byte ALPHANUMERIC = 1;
+    private static final byte NAME_CHARACTER = 2;
+    private static final byte UNSAFE = 4;
+    private static final byte LINE_TERMINATOR = 8;
+    private static final byte[] CHARACTER_CLASSES = new byte[128];
     
-    private static final Pattern UNSAFE_FILENAME_PATTERN = 
-        Pattern.compile(".*[<>:\"/\\\\|\\?\\*].*");
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            CHARACTER_CLASSES[c] = ALPHANUMERIC | NAME_CHARACTER;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHARACTER_CLASSES[c] = ALPHANUMERIC | NAME_CHARACTER;
+            CHARACTER_CLASSES[c - 'a' + 'A'] = ALPHANUMERIC | NAME_CHARACTER;
+        }
+        for (char c : "._- \t\u000B\f".toCharArray()) {
+            CHARACTER_CLASSES[c] = NAME_CHARACTER;
+        }
+        CHARACTER_CLASSES['\n'] = NAME_CHARACTER | LINE_TERMINATOR;
+        CHARACTER_CLASSES['\r'] = NAME_CHARACTER | LINE_TERMINATOR;
+        for (char c : "<>:\"/\\|?*".toCharArray()) {
+            CHARACTER_CLASSES[c] = UNSAFE;
+        }
+    }
     
-    private static final String[] RESERVED_NAMES = {
-        "CON", "PRN", "AUX", "NUL",
-        "COM1", "COM2", "COM3", "COM4", "COM5", "COM6", "COM7", "COM8", "COM9",
-        "LPT1", "LPT2", "LPT3", "LPT4", "LPT5", "LPT6", "LPT7", "LPT8", "LPT9"
-    };
+    // Windows reserved device names, packed as upper-case ASCII
+    private static final int CON = pack('C', 'O', 'N');
+    private static final int PRN = pack('P', 'R', 'N');
+    private static final int AUX = pack('A', 'U', 'X');
+    private static final int NUL = pack('N', 'U', 'L');
+    private static final int COM = pack('C', 'O', 'M');
+    private static final int LPT = pack('L', 'P', 'T');
     
+    private static final ValidationResult[] RESULTS = ValidationResult.values();
+    private static final int PARALLEL_THRESHOLD = 4096;
     private static final int MAX_FILENAME_LENGTH = 255;
+    
+    // Sanitized names never exceed MAX_FILENAME_LENGTH, so one buffer per thread is enough
+    private static final ThreadLocal<char[]> SANITIZE_BUFFER = 
+        ThreadLocal.withInitial(() -> new char[MAX_FILENAME_LENGTH]);
     private static final int MAX_ATTEMPTS = 3;
     
     /**
@@ -73,63 +104,212 @@ public class InputValidator {
     }
     
     /**
-     * Validates if a filename is valid and safe
+     * Validates if a filename is valid and safe. Nothing is printed; use
+     * validateFileName() to find out which rule a name breaks
      * @param fileName The filename to validate
      * @return true if filename is valid, false otherwise
      */
     public boolean isValidFileName(String fileName) {
-        if (fileName == null || fileName.trim().isEmpty()) {
-            System.err.println("Validation Error: Filename cannot be empty");
-            return false;
+        return validateFileName(fileName).isValid();
+    }
+    
+    /**
+     * Validates a filename in a single pass over its characters, without
+     * regular expressions or allocation. Surrounding whitespace is ignored,
+     * as with String.trim(). Rules are checked in this order:
+     * not empty, at most 255 characters, none of < > : " / \ | ? *,
+     * not a Windows reserved device name (ignoring the last extension),
+     * and only letters, digits, '.', '_', '-' and whitespace, starting and
+     * ending with a letter or digit
+     * @param fileName The filename to validate
+     * @return The first rule the name breaks, or VALID
+     */
+    public ValidationResult validateFileName(String fileName) {
+        return resultOf(check(fileName));
+    }
+    
+    /**
+     * Finds where a filename breaks the first rule it fails
+     * @param fileName The filename to check
+     * @return Index of the offending character in the untrimmed name, the
+     *         first character of a reserved name, or -1 if the name is
+     *         valid or empty
+     */
+    public int findViolation(String fileName) {
+        return positionOf(check(fileName));
+    }
+    
+    /**
+     * Validates many filenames, in parallel for large inputs. Safe to call
+     * from any number of threads at once
+     * @param fileNames Names to validate
+     * @return Result code and offending position for each name, in input order
+     */
+    public BulkValidationResult validateFileNames(Iterable<String> fileNames) {
+        if (fileNames instanceof Collection<String> collection) {
+            return validateAll(collection.toArray(new String[0]));
         }
         
-        String trimmedName = fileName.trim();
+        List<String> names = new ArrayList<>();
+        for (String fileName : fileNames) {
+            names.add(fileName);
+        }
+        return validateAll(names.toArray(new String[0]));
+    }
+    
+    /**
+     * Validates a stream of filenames, in parallel for large inputs
+     * @param fileNames Names to validate; the stream is consumed
+     * @return Result code and offending position for each name, in encounter order
+     */
+    public BulkValidationResult validateFileNames(Stream<String> fileNames) {
+        return validateAll(fileNames.toArray(String[]::new));
+    }
+    
+    private BulkValidationResult validateAll(String[] names) {
+        byte[] codes = new byte[names.length];
+        int[] positions = new int[names.length];
         
-        // Check length
-        if (trimmedName.length() > MAX_FILENAME_LENGTH) {
-            System.err.println("Validation Error: Filename too long (max " + 
-                             MAX_FILENAME_LENGTH + " characters)");
-            return false;
+        IntStream indexes = IntStream.range(0, names.length);
+        if (names.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
         }
+        indexes.forEach(i -> {
+            long outcome = check(names[i]);
+            codes[i] = (byte) resultOf(outcome).ordinal();
+            positions[i] = positionOf(outcome);
+        });
         
-        // Check for unsafe characters
-        if (UNSAFE_FILENAME_PATTERN.matcher(trimmedName).matches()) {
-            System.err.println("Validation Error: Filename contains invalid characters");
-            System.err.println("Invalid characters: < > : \" / \\ | ? *");
-            return false;
+        return new BulkValidationResult(names, codes, positions);
+    }
+    
+    /**
+     * Runs every rule over a filename
+     * @return The result and the index of the offending character in the
+     *         untrimmed name, packed by outcome()
+     */
+    private static long check(String fileName) {
+        if (fileName == null) {
+            return outcome(ValidationResult.EMPTY, -1);
         }
         
-        // Check for reserved names (Windows)
-        String nameWithoutExtension = trimmedName.contains(".") ? 
-            trimmedName.substring(0, trimmedName.lastIndexOf(".")) : trimmedName;
+        // Same bounds as String.trim(), without the copy
+        int start = 0;
+        int end = fileName.length();
+        while (start < end && fileName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fileName.charAt(end - 1) <= ' ') {
+            end--;
+        }
         
-        for (String reserved : RESERVED_NAMES) {
-            if (reserved.equalsIgnoreCase(nameWithoutExtension)) {
-                System.err.println("Validation Error: '" + trimmedName + 
-                                 "' is a reserved filename");
-                return false;
+        if (start == end) {
+            return outcome(ValidationResult.EMPTY, -1);
+        }
+        if (end - start > MAX_FILENAME_LENGTH) {
+            return outcome(ValidationResult.TOO_LONG, start + MAX_FILENAME_LENGTH);
+        }
+        
+        boolean lineTerminator = false;
+        int firstUnsafe = -1;
+        int firstNonNameCharacter = -1;
+        int lastDot = -1;
+        
+        for (int i = start; i < end; i++) {
+            char c = fileName.charAt(i);
+            int characterClass = c < CHARACTER_CLASSES.length ? CHARACTER_CLASSES[c] : 0;
+            
+            if ((characterClass & UNSAFE) != 0 && firstUnsafe < 0) {
+                firstUnsafe = i;
+            }
+            if ((characterClass & NAME_CHARACTER) == 0 && firstNonNameCharacter < 0) {
+                firstNonNameCharacter = i;
+            }
+            if ((characterClass & LINE_TERMINATOR) != 0 
+                    || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                lineTerminator = true;
+            } else if (c == '.') {
+                lastDot = i;
             }
         }
         
-        // Check pattern match
-        if (!VALID_FILENAME_PATTERN.matcher(trimmedName).matches()) {
-            System.err.println("Validation Error: Invalid filename format");
-            System.err.println("Filename should start and end with alphanumeric characters");
-            return false;
+        // The original rule was the regex .*[<>:"/\\|?*].* which, as '.' does
+        // not match line terminators, never fired on names containing one
+        if (firstUnsafe >= 0 && !lineTerminator) {
+            return outcome(ValidationResult.UNSAFE_CHARACTER, firstUnsafe);
         }
         
-        // Check for leading/trailing spaces or dots
-        if (trimmedName.startsWith(" ") || trimmedName.endsWith(" ") ||
-            trimmedName.startsWith(".") || trimmedName.endsWith(".")) {
-            System.err.println("Validation Error: Filename cannot start or end with spaces or dots");
+        if (isReservedName(fileName, start, lastDot >= 0 ? lastDot : end)) {
+            return outcome(ValidationResult.RESERVED_NAME, start);
+        }
+        
+        if (firstNonNameCharacter >= 0) {
+            return outcome(ValidationResult.INVALID_FORMAT, firstNonNameCharacter);
+        }
+        if ((CHARACTER_CLASSES[fileName.charAt(start)] & ALPHANUMERIC) == 0) {
+            return outcome(ValidationResult.INVALID_FORMAT, start);
+        }
+        if ((CHARACTER_CLASSES[fileName.charAt(end - 1)] & ALPHANUMERIC) == 0) {
+            return outcome(ValidationResult.INVALID_FORMAT, end - 1);
+        }
+        
+        return outcome(ValidationResult.VALID, -1);
+    }
+    
+    // A check outcome keeps the result ordinal in the low half and
+    // position + 1 in the high half, so no object is allocated per name
+    private static long outcome(ValidationResult result, int position) {
+        return ((long) (position + 1) << 32) | result.ordinal();
+    }
+    
+    private static ValidationResult resultOf(long outcome) {
+        return RESULTS[(int) outcome];
+    }
+    
+    private static int positionOf(long outcome) {
+        return (int) (outcome >>> 32) - 1;
+    }
+    
+    /**
+     * Checks a range of a name against the reserved device names, ignoring
+     * case, with a fixed number of comparisons
+     */
+    private static boolean isReservedName(String name, int start, int end) {
+        int length = end - start;
+        if (length != 3 && length != 4) {
             return false;
         }
         
-        return true;
+        int key = pack(name.charAt(start), name.charAt(start + 1), name.charAt(start + 2));
+        if (length == 3) {
+            return key == CON || key == PRN || key == AUX || key == NUL;
+        }
+        
+        char number = name.charAt(start + 3);
+        return (key == COM || key == LPT) && number >= '1' && number <= '9';
+    }
+    
+    /**
+     * Packs three characters, upper-cased if ASCII letters, into an int.
+     * Non-ASCII characters pack to a value no reserved name can have
+     */
+    private static int pack(char first, char second, char third) {
+        return (upperAscii(first) << 16) | (upperAscii(second) << 8) | upperAscii(third);
+    }
+    
+    private static int upperAscii(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - ('a' - 'A');
+        }
+        return c < 128 ? c : 0;
     }
     
     /**
-     * Sanitizes a filename by removing or replacing invalid characters
+     * Sanitizes a filename by removing or replacing invalid characters:
+     * surrounding whitespace is trimmed, each of < > : " / \ | ? * becomes
+     * '_', leading and trailing dots and whitespace are removed and the
+     * result is cut to 255 characters. Works in one pass over a per-thread
+     * buffer; a name that needs no changes is returned without copying
      * @param fileName The filename to sanitize
      * @return Sanitized filename
      */
@@ -138,25 +318,69 @@ public class InputValidator {
             return "";
         }
         
-        String sanitized = fileName.trim();
+        // Same bounds as String.trim()
+        int start = 0;
+        int end = fileName.length();
+        while (start < end && fileName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fileName.charAt(end - 1) <= ' ') {
+            end--;
+        }
         
-        // Replace invalid characters with underscores
-        sanitized = sanitized.replaceAll("[<>:\"/\\\\|\\?\\*]", "_");
+        // Leading dots and whitespace
+        while (start < end && isDotOrWhitespace(fileName.charAt(start))) {
+            start++;
+        }
         
-        // Remove leading and trailing dots and spaces
-        sanitized = sanitized.replaceAll("^[.\\s]+|[.\\s]+$", "");
+        // Trailing dots and whitespace. The original regex [.\s]+$ also
+        // removed such a run when it sat just before a final line terminator,
+        // keeping the terminator
+        boolean finalTerminator = end > start && isUnicodeLineTerminator(fileName.charAt(end - 1));
+        int tail = finalTerminator ? end - 1 : end;
+        while (tail > start && isDotOrWhitespace(fileName.charAt(tail - 1))) {
+            tail--;
+        }
         
-        // Ensure it doesn't exceed max length
-        if (sanitized.length() > MAX_FILENAME_LENGTH) {
-            sanitized = sanitized.substring(0, MAX_FILENAME_LENGTH);
+        int length = Math.min(tail - start + (finalTerminator ? 1 : 0), MAX_FILENAME_LENGTH);
+        if (length == 0) {
+            return "unnamed_file";
         }
         
-        // If empty after sanitization, provide default name
-        if (sanitized.isEmpty()) {
-            sanitized = "unnamed_file";
+        if (!finalTerminator && !containsUnsafeCharacter(fileName, start, start + length)) {
+            return fileName.substring(start, start + length);
         }
         
-        return sanitized;
+        char[] buffer = SANITIZE_BUFFER.get();
+        int copied = 0;
+        for (int i = start; i < tail && copied < length; i++) {
+            char c = fileName.charAt(i);
+            buffer[copied++] = c < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[c] & UNSAFE) != 0 ? '_' : c;
+        }
+        if (finalTerminator && copied < length) {
+            buffer[copied++] = fileName.charAt(end - 1);
+        }
+        
+        return new String(buffer, 0, copied);
+    }
+    
+    private static boolean isDotOrWhitespace(char c) {
+        // '.' or one of the regex \s characters: space, \t, \n, \x0B, \f, \r
+        return c == '.' || c == ' ' || (c >= '\t' && c <= '\r');
+    }
+    
+    private static boolean isUnicodeLineTerminator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+    
+    private static boolean containsUnsafeCharacter(String name, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c < CHARACTER_CLASSES.length && (CHARACTER_CLASSES[c] & UNSAFE) != 0) {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
@@ -178,9 +402,11 @@ public class InputValidator {
                 return null;
             }
             
-            if (isValidFileName(input)) {
+            ValidationResult result = validateFileName(input);
+            if (result.isValid()) {
                 return input;
             }
+            System.err.println("Validation Error: " + result.getMessage());
             
             attempts++;
             if (attempts < MAX_ATTEMPTS) {
@@ -301,7 +527,7 @@ public class InputValidator {
      * @param input String to convert
      * @param minValue Minimum allowed value
      * @param maxValue Maximum allowed value
-     * @return Integer value or null if invalid
+     * @return Integer value, or null if the input is not a number or out of range
      */
     public Integer validateAndParseInteger(String input, int minValue, int maxValue) {
         try {
@@ -312,15 +538,13 @@ public class InputValidator {
             int value = Integer.parseInt(input.trim());
             
             if (value < minValue || value > maxValue) {
-                System.err.println("Value must be between " + minValue + " and " + maxValue);
-                return null;
+                return null; // Out of range
             }
             
             return value;
             
         } catch (NumberFormatException e) {
-            System.err.println("Invalid number format: " + input);
-            return null;
+            return null; // Not a number
         }
     }
     
@@ -0,0 +1,94 @@
+package main;
+
+/**
+ * ListingBackend.java - Directory Listing Strategies
+ * Each backend enumerates the regular files of one directory.
+ *
+ * LIST_FILES is the original File.listFiles() path, which checks
+ * File.isFile() with an extra stat per entry. WALK_FILE_TREE uses
+ * Files.walkFileTree with depth 1. Where the platform returns attributes
+ * with the directory read (Windows FindNextFile), those are used as-is,
+ * so there is no stat per entry.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+
+public enum ListingBackend {
+
+    LIST_FILES {
+        @Override
+        public void scan(Path directory, EntryVisitor visitor) throws IOException {
+            File[] files = directory.toFile().listFiles();
+
+            if (files != null) {
+                for (File file : files) {
+                    // Only include files, not directories
+                    if (file.isFile()) {
+                        visitor.visit(file.getName(), null);
+                    }
+                }
+            }
+        }
+    },
+
+    WALK_FILE_TREE {
+        @Override
+        public void scan(Path directory, EntryVisitor visitor) throws IOException {
+            Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                            throws IOException {
+                        // Only include files, not directories
+                        if (attributes.isRegularFile()) {
+                            visitor.visit(file.getFileName().toString(), attributes);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                        if (file.equals(directory)) {
+                            throw exc;
+                        }
+                        // Entry vanished or is unreadable - skip it
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+        }
+    };
+
+    /**
+     * Receives each regular file found by a scan
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+
+        /**
+         * @param fileName Name of the file
+         * @param attributes Attributes read with the listing, or null if
+         *                   the backend does not provide them
+         * @throws IOException to abort the scan
+         */
+        void visit(String fileName, BasicFileAttributes attributes) throws IOException;
+    }
+
+    /**
+     * Enumerates the regular files directly inside a directory
+     * @param directory Directory to list
+     * @param visitor Receives each regular file
+     * @throws IOException if the directory cannot be read
+     */
+    public abstract void scan(Path directory, EntryVisitor visitor) throws IOException;
+}
@@ -9,7 +9,27 @@ package main;
  * @company Company LockedMe.com pvt Ltd..
  */
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import javax.management.JMException;
 
 public class LockedMeApp {
     
@@ -17,24 +37,216 @@ public class LockedMeApp {
     private static final String DEVELOPER_NAME = "Chirag";
     private static final String COMPANY_NAME = "Company LockedMe.com pvt. Ltd.";
     private static final String VERSION = "1.01";
+    private static final int PAGE_SIZE = 20;
+    private static final int CONTENT_MATCH_LIMIT = 100;
+    private static final int DEFAULT_SERVER_PORT = 8080;
     
     private static Scanner scanner = new Scanner(System.in);
     private static FileManager fileManager = new FileManager();
     private static MenuHandler menuHandler = new MenuHandler();
     private static InputValidator inputValidator = new InputValidator();
+    private static FrameRenderer renderer = new FrameRenderer();
     
     public static void main(String[] args) {
+        Duration trashRetention = null;
+        if (args.length > 0 && args[0].equals("--trash")) {
+            try {
+                trashRetention = parseTrashRetention(args);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.err.println("Usage: LockedMeApp [--trash [days]]");
+                System.exit(2);
+            }
+        } else if (args.length > 0) {
+            System.exit(runCommandLine(args));
+        }
+        
         try {
             displayWelcomeScreen();
+            // Start from the saved index, or scan once, and keep it fresh in the background
+            fileManager.enableIndexing(true);
+            // Deletes are permanent unless trash mode was asked for on the command line
+            if (trashRetention != null) {
+                fileManager.enableTrash(trashRetention, FileManager.DEFAULT_PURGE_BYTES_PER_SECOND);
+            }
+            registerStatistics();
             runApplication();
         } catch (Exception e) {
             System.err.println("An unexpected error occurred: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            fileManager.getOperationStats().unregisterMBeans();
+            fileManager.disableTrash();
+            fileManager.disableIndexing();
             scanner.close();
         }
     }
     
+    /**
+     * Reads the retention of --trash [days]
+     * @param args Command line arguments, starting with --trash
+     * @return Retention window, the FileManager default when no days are given
+     */
+    private static Duration parseTrashRetention(String[] args) {
+        if (args.length == 1) {
+            return FileManager.DEFAULT_TRASH_RETENTION;
+        }
+        if (args.length > 2) {
+            throw new IllegalArgumentException("--trash cannot be combined with other options");
+        }
+        try {
+            int days = Integer.parseInt(args[1]);
+            if (days < 1) {
+                throw new IllegalArgumentException("Trash retention must be at least 1 day");
+            }
+            return Duration.ofDays(days);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number of days: " + args[1]);
+        }
+    }
+    
+    /**
+     * Runs the non-interactive modes selected on the command line:
+     *   --script FILE|-   run commands from a file or standard input
+     *   --list            write every file as a record
+     *   --serve [PORT]    serve the HTTP API on the loopback interface
+     * --script and --list accept --format text|jsonl|nul
+     * @param args Command line arguments
+     * @return Process exit status
+     */
+    private static int runCommandLine(String[] args) {
+        String script = null;
+        boolean list = false;
+        int servePort = -1;
+        OutputFormat format = OutputFormat.TEXT;
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--script") && i + 1 < args.length) {
+                    script = args[++i];
+                } else if (args[i].equals("--format") && i + 1 < args.length) {
+                    format = OutputFormat.parse(args[++i]);
+                } else if (args[i].equals("--list")) {
+                    list = true;
+                } else if (args[i].equals("--serve")) {
+                    servePort = DEFAULT_SERVER_PORT;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        servePort = parsePort(args[++i]);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            int modes = (script != null ? 1 : 0) + (list ? 1 : 0) + (servePort >= 0 ? 1 : 0);
+            if (modes != 1) {
+                throw new IllegalArgumentException("Choose one of --script, --list or --serve");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LockedMeApp [--script <file>|- | --list] [--format text|jsonl|nul]");
+            System.err.println("       LockedMeApp --serve [port]");
+            System.err.println("       LockedMeApp [--trash [days]]");
+            return 2;
+        }
+        
+        if (servePort >= 0) {
+            return runServer(servePort);
+        }
+        
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        
+        if (list) {
+            try {
+                RecordWriter records = new RecordWriter(out, format);
+                fileManager.writeFileListing(records);
+                records.flush();
+                return 0;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error listing files: " + e.getMessage());
+                return 2;
+            }
+        }
+        
+        try (BufferedReader in = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            
+            // A one-shot run keeps its index in memory, so it leaves no .lockedme behind
+            fileManager.enableIndexing(false);
+            long failures = new ScriptRunner(fileManager, inputValidator, out, format).run(in);
+            return failures == 0 ? 0 : 1;
+            
+        } catch (IOException e) {
+            System.err.println("Error running script: " + e.getMessage());
+            return 2;
+        } finally {
+            fileManager.disableIndexing();
+        }
+    }
+    
+    /**
+     * Serves the HTTP API until the process is stopped
+     * @param port Port to listen on, 0 for any free port
+     * @return Process exit status if the server could not start
+     */
+    private static int runServer(int port) {
+        FileServer server;
+        try {
+            // Requests run concurrently, so same-name operations need locking
+            fileManager = new ConcurrentFileManager(fileManager.getCurrentDirectory());
+            // One warm index serves every request
+            fileManager.enableIndexing(true);
+            registerStatistics();
+            server = new FileServer(fileManager, inputValidator, port);
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            fileManager.disableIndexing();
+            return 2;
+        }
+        
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            fileManager.getOperationStats().unregisterMBeans();
+            fileManager.disableIndexing();
+        }));
+        
+        server.start();
+        System.out.println("Serving " + fileManager.getCurrentDirectory()
+                           + " on http://127.0.0.1:" + server.getPort() + "/files");
+        
+        // main exits with the returned status, so block until interrupted
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Publishes the operation statistics over JMX; the application works without them
+     */
+    private static void registerStatistics() {
+        try {
+            fileManager.getOperationStats().registerMBeans(fileManager.getCurrentDirectory());
+        } catch (JMException e) {
+            System.err.println("Warning: Operation statistics are not available over JMX: " + e.getMessage());
+        }
+    }
+    
+    private static int parsePort(String text) {
+        try {
+            int port = Integer.parseInt(text);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid port: " + text);
+    }
+    
     /**
      * Displays the welcome screen with application and developer details
      */
@@ -58,7 +270,7 @@ public class LockedMeApp {
         while (continueRunning) {
             try {
                 menuHandler.displayMainMenu();
-                int choice = inputValidator.getValidMenuChoice(scanner, 1, 3);
+                int choice = inputValidator.getValidMenuChoice(scanner, 1, 5);
                 
                 switch (choice) {
                     case 1:
@@ -68,6 +280,12 @@ public class LockedMeApp {
                         handleFileOperations();
                         break;
                     case 3:
+                        menuHandler.displayStatistics(fileManager.getOperationStats());
+                        break;
+                    case 4:
+                        handleDiskUsage();
+                        break;
+                    case 5:
                         continueRunning = false;
                         displayExitMessage();
                         break;
@@ -89,12 +307,80 @@ public class LockedMeApp {
     }
     
     /**
-     * Handles displaying files in ascending order
+     * Handles the disk usage report
+     */
+    private static void handleDiskUsage() {
+        System.out.println("\n=== Disk Usage ===");
+        try {
+            long start = System.nanoTime();
+            DiskUsage.Report report = fileManager.reportDiskUsage();
+            menuHandler.displayDiskUsage(report, PAGE_SIZE);
+            System.out.printf("Completed in %.2f s%n", (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Error reporting disk usage: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Handles displaying files in ascending order, one page at a time
      */
     private static void handleDisplayFiles() {
         System.out.println("\n=== Files in Current Directory (Ascending Order) ===");
         try {
-            fileManager.displayFilesAscending();
+            // Last name of each previous page, used as the cursor to go back
+            Deque<String> previousCursors = new ArrayDeque<>();
+            String cursor = null;
+            int pageNumber = 1;
+            
+            while (true) {
+                List<String> page = fileManager.listFilesAfter(cursor, PAGE_SIZE + 1);
+                boolean hasNext = page.size() > PAGE_SIZE;
+                if (hasNext) {
+                    page = page.subList(0, PAGE_SIZE);
+                }
+                
+                if (page.isEmpty() && pageNumber == 1) {
+                    System.out.println("The directory is empty. No files found.");
+                    return;
+                }
+                
+                renderer.line("Files in directory (" + fileManager.getCurrentDirectory() + "):");
+                renderer.line("Total files found: " + fileManager.getFileCount() + 
+                              " (page " + pageNumber + ")");
+                renderer.line("----------------------------------------");
+                
+                int firstNumber = (pageNumber - 1) * PAGE_SIZE + 1;
+                for (int i = 0; i < page.size(); i++) {
+                    renderer.line(firstNumber + i, page.get(i));
+                }
+                
+                renderer.line("----------------------------------------");
+                
+                if (!hasNext && pageNumber == 1) {
+                    renderer.flush();
+                    return;
+                }
+                
+                // The page and its prompt are written as one frame
+                renderer.text((hasNext ? "[N]ext page, " : "") + 
+                              (pageNumber > 1 ? "[P]revious page, " : "") + "[Q]uit listing: ");
+                renderer.flush();
+                String input = scanner.nextLine().trim().toLowerCase();
+                
+                if (input.equals("n") && hasNext) {
+                    previousCursors.push(cursor == null ? "" : cursor);
+                    cursor = page.get(page.size() - 1);
+                    pageNumber++;
+                } else if (input.equals("p") && pageNumber > 1) {
+                    String previous = previousCursors.pop();
+                    cursor = previous.isEmpty() ? null : previous;
+                    pageNumber--;
+                } else if (input.equals("q")) {
+                    return;
+                } else {
+                    System.out.println("Invalid choice. Please try again.");
+                }
+            }
         } catch (Exception e) {
             System.err.println("Error displaying files: " + e.getMessage());
         }
@@ -109,7 +395,7 @@ public class LockedMeApp {
         while (!backToMain) {
             try {
                 menuHandler.displayFileOperationsMenu();
-                int choice = inputValidator.getValidMenuChoice(scanner, 1, 4);
+                int choice = inputValidator.getValidMenuChoice(scanner, 1, 11);
                 
                 switch (choice) {
                     case 1:
@@ -122,6 +408,27 @@ public class LockedMeApp {
                         handleSearchFile();
                         break;
                     case 4:
+                        handlePatternSearch();
+                        break;
+                    case 5:
+                        handleBulkOperation();
+                        break;
+                    case 6:
+                        handleExportListing();
+                        break;
+                    case 7:
+                        handleRestoreFile();
+                        break;
+                    case 8:
+                        handleEmptyTrash();
+                        break;
+                    case 9:
+                        handleFindDuplicates();
+                        break;
+                    case 10:
+                        handleContentSearch();
+                        break;
+                    case 11:
                         backToMain = true;
                         break;
                     default:
@@ -149,31 +456,53 @@ public class LockedMeApp {
             System.out.print("Enter file name to add: ");
             String fileName = scanner.nextLine().trim();
             
-            if (inputValidator.isValidFileName(fileName)) {
+            if (isValidFileName(fileName)) {
                 boolean success = fileManager.addFile(fileName);
                 if (success) {
                     System.out.println("File '" + fileName + "' added successfully!");
                 } else {
                     System.out.println("Failed to add file '" + fileName + "'. File may already exist.");
+                    offerSuggestedName(fileName);
                 }
             } else {
                 System.out.println("Invalid file name. Please enter a valid file name.");
+                offerSuggestedName(fileName);
             }
         } catch (Exception e) {
             System.err.println("Error adding file: " + e.getMessage());
         }
     }
     
+    /**
+     * Suggests a valid, unused variant of a rejected name and creates it
+     * if the user accepts
+     * @param fileName Name that could not be added
+     */
+    private static void offerSuggestedName(String fileName) {
+        String suggestion = FileNameSuggester.forDirectory(fileManager, inputValidator).suggest(fileName);
+        if (!inputValidator.isValidFileName(suggestion)) {
+            return; // Sanitizing alone could not repair this name
+        }
+        
+        if (inputValidator.getYesNoConfirmation(scanner, "Create '" + suggestion + "' instead?")) {
+            if (fileManager.addFile(suggestion)) {
+                System.out.println("File '" + suggestion + "' added successfully!");
+            }
+        }
+    }
+    
     /**
      * Handles deleting a file
      */
     private static void handleDeleteFile() {
         System.out.println("\n=== Delete File ===");
         try {
-            System.out.print("Enter file name to delete (case-sensitive): ");
+            System.out.print(fileManager.isTrashEnabled()
+                ? "Enter file name to move to the trash (case-sensitive): "
+                : "Enter file name to delete permanently (case-sensitive): ");
             String fileName = scanner.nextLine().trim();
             
-            if (inputValidator.isValidFileName(fileName)) {
+            if (isValidFileName(fileName)) {
                 boolean success = fileManager.deleteFile(fileName);
                 if (success) {
                     System.out.println("File '" + fileName + "' deleted successfully!");
@@ -188,6 +517,126 @@ public class LockedMeApp {
         }
     }
     
+    /**
+     * Handles restoring a deleted file from the trash
+     */
+    private static void handleRestoreFile() {
+        System.out.println("\n=== Restore File ===");
+        try {
+            List<Trash.Entry> entries = fileManager.listTrash();
+            if (entries.isEmpty()) {
+                System.out.println("The trash is empty. Nothing to restore.");
+                return;
+            }
+            
+            DateTimeFormatter deletedAt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+                                                           .withZone(ZoneId.systemDefault());
+            renderer.line("Files in trash (most recently deleted first):");
+            for (int i = 0; i < entries.size(); i++) {
+                Trash.Entry entry = entries.get(i);
+                renderer.line(i + 1, entry.fileName() + "  (deleted " 
+                              + deletedAt.format(Instant.ofEpochMilli(entry.deletedMillis())) + ", " 
+                              + entry.size() + " bytes)");
+            }
+            renderer.text("Enter file name to restore (case-sensitive): ");
+            renderer.flush();
+            String fileName = scanner.nextLine().trim();
+            
+            if (isValidFileName(fileName)) {
+                boolean success = fileManager.restoreFile(fileName);
+                if (success) {
+                    System.out.println("File '" + fileName + "' restored successfully!");
+                } else {
+                    System.out.println("File '" + fileName + "' was not restored.");
+                }
+            } else {
+                System.out.println("Invalid file name. Please enter a valid file name.");
+            }
+        } catch (Exception e) {
+            System.err.println("Error restoring file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Handles permanently deleting everything in the trash
+     */
+    private static void handleEmptyTrash() {
+        System.out.println("\n=== Empty Trash ===");
+        List<Trash.Entry> entries = fileManager.listTrash();
+        if (entries.isEmpty()) {
+            System.out.println("The trash is already empty.");
+            return;
+        }
+        
+        long bytes = 0;
+        for (Trash.Entry entry : entries) {
+            bytes += entry.size();
+        }
+        System.out.println(entries.size() + " file(s), " + bytes + " bytes in the trash.");
+        
+        if (inputValidator.getYesNoConfirmation(scanner, "Permanently delete them?")) {
+            int deleted = fileManager.emptyTrash();
+            if (deleted >= 0) {
+                System.out.println("Permanently deleted " + deleted + " file(s).");
+            }
+        } else {
+            System.out.println("Operation cancelled.");
+        }
+    }
+    
+    /**
+     * Handles listing files with identical content
+     */
+    private static void handleFindDuplicates() {
+        System.out.println("\n=== Find Duplicate Files ===");
+        System.out.println("Comparing files...");
+        try {
+            long start = System.nanoTime();
+            DuplicateFinder.Report report = fileManager.findDuplicates();
+            menuHandler.displayDuplicateReport(report, PAGE_SIZE);
+            System.out.printf("Completed in %.2f s%n", (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Error finding duplicates: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Handles searching inside files, printing matches as they are found
+     */
+    private static void handleContentSearch() {
+        System.out.println("\n=== Search File Contents ===");
+        System.out.print("Enter text to find (case-sensitive): ");
+        String text = scanner.nextLine();
+        
+        if (text.isEmpty()) {
+            System.out.println("Invalid text. Search text cannot be empty.");
+            return;
+        }
+        
+        try {
+            long start = System.nanoTime();
+            ContentSearcher search = fileManager.newContentSearch(text, CONTENT_MATCH_LIMIT);
+            System.out.println("----------------------------------------");
+            int found = search.run(match -> {
+                synchronized (System.out) {
+                    System.out.println(match.fileName() + ":" + match.offset() + ": " + match.line());
+                }
+            });
+            System.out.println("----------------------------------------");
+            
+            if (found == 0) {
+                System.out.println("Search Result: No file contains '" + text + "'.");
+            } else if (search.isStopped()) {
+                System.out.println("Search Result: Showing the first " + found + " matches; there may be more.");
+            } else {
+                System.out.println("Search Result: " + found + " match(es) found.");
+            }
+            System.out.printf("Completed in %.2f s%n", (System.nanoTime() - start) / 1e9);
+        } catch (IOException e) {
+            System.err.println("Error searching file contents: " + e.getMessage());
+        }
+    }
+    
     /**
      * Handles searching for a file
      */
@@ -197,7 +646,7 @@ public class LockedMeApp {
             System.out.print("Enter file name to search (case-sensitive): ");
             String fileName = scanner.nextLine().trim();
             
-            if (inputValidator.isValidFileName(fileName)) {
+            if (isValidFileName(fileName)) {
                 boolean found = fileManager.searchFile(fileName);
                 if (found) {
                     System.out.println("Search Result: File '" + fileName + "' found successfully!");
@@ -212,6 +661,207 @@ public class LockedMeApp {
         }
     }
     
+    /**
+     * Handles searching files by substring, glob or regex pattern
+     */
+    private static void handlePatternSearch() {
+        System.out.println("\n=== Search Files by Pattern ===");
+        try {
+            menuHandler.displaySearchModeMenu();
+            int choice = inputValidator.getValidMenuChoice(scanner, 1, 4);
+            
+            SearchMode mode;
+            switch (choice) {
+                case 1:
+                    mode = SearchMode.SUBSTRING;
+                    break;
+                case 2:
+                    mode = SearchMode.GLOB;
+                    break;
+                case 3:
+                    mode = SearchMode.REGEX;
+                    break;
+                default:
+                    return;
+            }
+            
+            System.out.print("Enter " + mode.name().toLowerCase() + " pattern: ");
+            String pattern = scanner.nextLine().trim();
+            
+            if (pattern.isEmpty()) {
+                System.out.println("Invalid pattern. Pattern cannot be empty.");
+                return;
+            }
+            
+            if (inputValidator.getYesNoConfirmation(scanner, "Include subdirectories?")) {
+                handleRecursiveSearch(pattern, mode);
+                return;
+            }
+            
+            List<String> matches = fileManager.searchFiles(pattern, mode);
+            if (matches.isEmpty()) {
+                System.out.println("Search Result: No files match '" + pattern + "'.");
+                return;
+            }
+            
+            System.out.println("Search Result: " + matches.size() + " file(s) match '" + pattern + "':");
+            System.out.println("----------------------------------------");
+            for (int i = 0; i < matches.size(); i++) {
+                System.out.println((i + 1) + ". " + matches.get(i));
+            }
+            System.out.println("----------------------------------------");
+            
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid pattern: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error searching files: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Searches the directory tree, printing matches as they are found
+     * @param pattern Pattern to match
+     * @param mode Search mode
+     */
+    private static void handleRecursiveSearch(String pattern, SearchMode mode) {
+        System.out.println("Searching subdirectories...");
+        System.out.println("----------------------------------------");
+        
+        int found = fileManager.searchRecursive(pattern, mode, new TreeSearchOptions(), match -> {
+            synchronized (System.out) {
+                System.out.println("  " + match);
+            }
+        });
+        
+        System.out.println("----------------------------------------");
+        System.out.println("Search Result: " + found + " file(s) match '" + pattern + "'.");
+    }
+    
+    /**
+     * Handles adding or deleting every file named in a list file
+     */
+    private static void handleBulkOperation() {
+        System.out.println("\n=== Bulk Add/Delete ===");
+        try {
+            System.out.print("Enter path of the file listing the names (one per line): ");
+            Path listFile = Paths.get(scanner.nextLine().trim());
+            
+            if (!Files.isRegularFile(listFile)) {
+                System.out.println("List file not found: " + listFile);
+                return;
+            }
+            
+            System.out.print("Add or delete these files? (a/d): ");
+            String action = scanner.nextLine().trim().toLowerCase();
+            if (!action.equals("a") && !action.equals("d")) {
+                System.out.println("Invalid choice. Operation cancelled.");
+                return;
+            }
+            
+            List<String> lines = new ArrayList<>();
+            for (String line : Files.readAllLines(listFile)) {
+                String fileName = line.trim();
+                if (!fileName.isEmpty() && !fileName.startsWith("#")) {
+                    lines.add(fileName);
+                }
+            }
+            
+            BulkValidationResult validation = inputValidator.validateFileNames(lines);
+            List<String> fileNames = validation.getValidFileNames();
+            
+            BatchResult result = action.equals("a") 
+                ? fileManager.addFiles(fileNames) 
+                : fileManager.deleteFiles(fileNames);
+            
+            System.out.println("----------------------------------------");
+            System.out.println("Processed: " + result.size() + " file name(s)");
+            for (Map.Entry<FileOperationResult.Status, Integer> count : result.getCounts().entrySet()) {
+                System.out.println("  " + count.getKey() + ": " + count.getValue());
+            }
+            for (Map.Entry<ValidationResult, Integer> count : validation.getCounts().entrySet()) {
+                if (!count.getKey().isValid()) {
+                    System.out.println("  Skipped, " + count.getKey().getMessage().toLowerCase() + 
+                                     ": " + count.getValue());
+                }
+            }
+            
+            List<String> failed = result.getFailedFileNames();
+            for (int i = 0; i < Math.min(failed.size(), PAGE_SIZE); i++) {
+                System.out.println("  Not processed: " + failed.get(i));
+            }
+            if (failed.size() > PAGE_SIZE) {
+                System.out.println("  ... and " + (failed.size() - PAGE_SIZE) + " more");
+            }
+            System.out.println("----------------------------------------");
+            
+        } catch (Exception e) {
+            System.err.println("Error processing list file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Handles writing the file listing to a file as records
+     */
+    private static void handleExportListing() {
+        System.out.println("\n=== Export File List ===");
+        System.out.println("1. JSON Lines (one object per file)");
+        System.out.println("2. NUL-separated fields");
+        System.out.println("3. Tab-separated text");
+        System.out.print("Select a format (1-3): ");
+        
+        int choice = inputValidator.getValidMenuChoice(scanner, 1, 3);
+        if (choice == -1) {
+            return;
+        }
+        OutputFormat format = choice == 1 ? OutputFormat.JSON_LINES 
+                            : choice == 2 ? OutputFormat.NUL 
+                            : OutputFormat.TEXT;
+        
+        System.out.print("Enter output file path: ");
+        String target = scanner.nextLine().trim();
+        if (target.isEmpty()) {
+            System.out.println("Output file cannot be empty. Operation cancelled.");
+            return;
+        }
+        
+        try (Writer out = Files.newBufferedWriter(Paths.get(target), StandardCharsets.UTF_8)) {
+            RecordWriter records = new RecordWriter(out, format);
+            long written = fileManager.writeFileListing(records);
+            records.flush();
+            System.out.println("Exported " + written + " file record(s) to " + target);
+        } catch (Exception e) {
+            System.err.println("Error exporting file list: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Validates a file name entered by the user and explains any problem
+     * @param fileName Name to check
+     * @return true if the name is valid, false otherwise
+     */
+    private static boolean isValidFileName(String fileName) {
+        ValidationResult result = inputValidator.validateFileName(fileName);
+        
+        switch (result) {
+            case VALID:
+                return true;
+            case UNSAFE_CHARACTER:
+                System.err.println("Validation Error: " + result.getMessage());
+                System.err.println("Invalid characters: < > : \" / \\ | ? *");
+                break;
+            case RESERVED_NAME:
+                System.err.println("Validation Error: '" + fileName.trim() + "' is a reserved filename");
+                break;
+            case INVALID_FORMAT:
+                System.err.println("Validation Error: " + result.getMessage());
+                System.err.println("Filename should start and end with alphanumeric characters");
+                break;
+            default:
+                System.err.println("Validation Error: " + result.getMessage());
+        }
+        return false;
+    }
+    
     /**
      * Displays exit message
      */
@@ -0,0 +1,108 @@
+package main;
+
+/**
+ * MatcherCache.java - Bounded LRU Cache of Compiled Search Patterns
+ * Keeps compiled regex Patterns and glob PathMatchers keyed by mode and
+ * pattern text, so repeated queries do not recompile them.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.InvalidPathException;
+import java.nio.file.PathMatcher;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class MatcherCache {
+
+    private final int capacity;
+    private final FileSystem fileSystem;
+    private final Map<String, Object> compiled;
+
+    /**
+     * Constructor
+     * @param capacity Maximum number of compiled patterns to keep
+     */
+    public MatcherCache(int capacity) {
+        this(capacity, FileSystems.getDefault());
+    }
+
+    /**
+     * Constructor with the file system whose glob syntax is used
+     * @param capacity Maximum number of compiled patterns to keep
+     * @param fileSystem File system providing path matchers
+     */
+    public MatcherCache(int capacity, FileSystem fileSystem) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.fileSystem = fileSystem;
+        this.compiled = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > MatcherCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Creates a matcher for one query
+     * @param pattern Pattern text
+     * @param mode How the pattern is interpreted
+     * @return Matcher for the calling thread
+     * @throws IllegalArgumentException if the pattern is not valid for the mode
+     */
+    public NameMatcher newMatcher(String pattern, SearchMode mode) {
+        if (pattern == null || mode == null) {
+            throw new IllegalArgumentException("Pattern and mode cannot be null");
+        }
+
+        switch (mode) {
+            case GLOB: {
+                PathMatcher glob = (PathMatcher) lookup(mode, pattern);
+                return fileName -> {
+                    try {
+                        return glob.matches(fileSystem.getPath(fileName));
+                    } catch (InvalidPathException e) {
+                        return false;
+                    }
+                };
+            }
+            case REGEX: {
+                // One Matcher per query, reset for each name instead of reallocated
+                Matcher matcher = ((Pattern) lookup(mode, pattern)).matcher("");
+                return fileName -> matcher.reset(fileName).find();
+            }
+            default:
+                return fileName -> NameMatcher.containsIgnoreCase(fileName, pattern);
+        }
+    }
+
+    /**
+     * Gets the number of compiled patterns currently cached
+     * @return Cache size
+     */
+    public synchronized int size() {
+        return compiled.size();
+    }
+
+    private synchronized Object lookup(SearchMode mode, String pattern) {
+        String key = mode.name() + ':' + pattern;
+        Object value = compiled.get(key);
+
+        if (value == null) {
+            value = mode == SearchMode.GLOB
+                ? fileSystem.getPathMatcher("glob:" + pattern)
+                : Pattern.compile(pattern);
+            compiled.put(key, value);
+        }
+
+        return value;
+    }
+}
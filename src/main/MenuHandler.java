@@ -9,146 +9,331 @@ package main;
  * @company Company LockedMe.com pvt Ltd..
  */
 
+import java.time.Duration;
+import java.util.Map;
+
 public class MenuHandler {
     
     private static final String MENU_SEPARATOR = "========================================";
     private static final String SUB_SEPARATOR = "----------------------------------------";
+    
+    // Each menu is built as one frame and written with a single flush
+    private final FrameRenderer renderer = new FrameRenderer();
 
     public void displayMainMenu() {
-        System.out.println("\n" + MENU_SEPARATOR);
-        System.out.println("           MAIN MENU");
-        System.out.println(MENU_SEPARATOR);
-        System.out.println("1. Display all files (Ascending Order)");
-        System.out.println("2. File Operations");
-        System.out.println("3. Exit Application");
-        System.out.println(MENU_SEPARATOR);
-        System.out.print("Please select an option (1-3): ");
+        renderer.line("\n" + MENU_SEPARATOR);
+        renderer.line("           MAIN MENU");
+        renderer.line(MENU_SEPARATOR);
+        renderer.line("1. Display all files (Ascending Order)");
+        renderer.line("2. File Operations");
+        renderer.line("3. Statistics");
+        renderer.line("4. Disk usage");
+        renderer.line("5. Exit Application");
+        renderer.line(MENU_SEPARATOR);
+        renderer.text("Please select an option (1-5): ");
+        renderer.flush();
     }
     
 
     public void displayFileOperationsMenu() {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("        FILE OPERATIONS MENU");
-        System.out.println(SUB_SEPARATOR);
-        System.out.println("1. Add a file");
-        System.out.println("2. Delete a file");
-        System.out.println("3. Search for a file");
-        System.out.println("4. Return to Main Menu");
-        System.out.println(SUB_SEPARATOR);
-        System.out.print("Please select an option (1-4): ");
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("        FILE OPERATIONS MENU");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("1. Add a file");
+        renderer.line("2. Delete a file");
+        renderer.line("3. Search for a file");
+        renderer.line("4. Search files by pattern");
+        renderer.line("5. Bulk add/delete from a list file");
+        renderer.line("6. Export file list (JSON Lines, NUL or text)");
+        renderer.line("7. Restore a file from the trash");
+        renderer.line("8. Empty the trash");
+        renderer.line("9. Find duplicate files");
+        renderer.line("10. Search file contents");
+        renderer.line("11. Return to Main Menu");
+        renderer.line(SUB_SEPARATOR);
+        renderer.text("Please select an option (1-11): ");
+        renderer.flush();
+    }
+    
+
+    public void displaySearchModeMenu() {
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("        PATTERN SEARCH MODE");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("1. Substring (case-insensitive, e.g. report)");
+        renderer.line("2. Glob (e.g. *.log, report-2026-??.csv)");
+        renderer.line("3. Regular expression (e.g. ^data_[0-9]+\\.csv$)");
+        renderer.line("4. Return to File Operations Menu");
+        renderer.line(SUB_SEPARATOR);
+        renderer.text("Please select an option (1-4): ");
+        renderer.flush();
     }
     
 
     public void displayMainMenuHelp() {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("           HELP - MAIN MENU");
-        System.out.println(SUB_SEPARATOR);
-        System.out.println("Option 1: Display Files");
-        System.out.println("  - Shows all files in the current directory");
-        System.out.println("  - Files are sorted in ascending alphabetical order");
-        System.out.println("  - Displays total file count");
-        System.out.println();
-        System.out.println("Option 2: File Operations");
-        System.out.println("  - Opens the file operations sub-menu");
-        System.out.println("  - Allows you to add, delete, or search files");
-        System.out.println();
-        System.out.println("Option 3: Exit");
-        System.out.println("  - Safely closes the application");
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("           HELP - MAIN MENU");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("Option 1: Display Files");
+        renderer.line("  - Shows all files in the current directory");
+        renderer.line("  - Files are sorted in ascending alphabetical order");
+        renderer.line("  - Displays total file count");
+        renderer.line("  - Large listings are shown one page at a time (next/previous)");
+        renderer.line();
+        renderer.line("Option 2: File Operations");
+        renderer.line("  - Opens the file operations sub-menu");
+        renderer.line("  - Allows you to add, delete, or search files");
+        renderer.line();
+        renderer.line("Option 3: Statistics");
+        renderer.line("  - Shows how often each file operation ran and how long it took");
+        renderer.line("  - Latencies are given as median (p50), p99 and p99.9");
+        renderer.line("  - Lists errors by type");
+        renderer.line();
+        renderer.line("Option 4: Disk usage");
+        renderer.line("  - Shows total size and file count of every subdirectory");
+        renderer.line("  - Lists the largest files in each");
+        renderer.line("  - Repeat reports only re-read directories that changed");
+        renderer.line();
+        renderer.line("Option 5: Exit");
+        renderer.line("  - Safely closes the application");
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
     /**
      * Displays help information for file operations menu
+     * @param trashRetention How long deleted files stay restorable, or null
+     *                       if deletes are permanent
      */
-    public void displayFileOperationsHelp() {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("       HELP - FILE OPERATIONS");
-        System.out.println(SUB_SEPARATOR);
-        System.out.println("Option 1: Add a file");
-        System.out.println("  - Creates a new empty file in the current directory");
-        System.out.println("  - File names are case-insensitive for creation");
-        System.out.println("  - Will not overwrite existing files");
-        System.out.println();
-        System.out.println("Option 2: Delete a file");
-        System.out.println("  - Removes a file from the current directory");
-        System.out.println("  - File names are CASE-SENSITIVE for deletion");
-        System.out.println("  - Shows 'File Not Found' if file doesn't exist");
-        System.out.println();
-        System.out.println("Option 3: Search for a file");
-        System.out.println("  - Searches for a file in the current directory");
-        System.out.println("  - File names are CASE-SENSITIVE for searching");
-        System.out.println("  - Displays file details if found");
-        System.out.println();
-        System.out.println("Option 4: Return to Main Menu");
-        System.out.println("  - Goes back to the main application menu");
-        System.out.println(SUB_SEPARATOR);
+    public void displayFileOperationsHelp(Duration trashRetention) {
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("       HELP - FILE OPERATIONS");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("Option 1: Add a file");
+        renderer.line("  - Creates a new empty file in the current directory");
+        renderer.line("  - File names are case-insensitive for creation");
+        renderer.line("  - Will not overwrite existing files");
+        renderer.line();
+        renderer.line("Option 2: Delete a file");
+        if (trashRetention != null) {
+            renderer.line("  - Moves a file from the current directory to the trash");
+        } else {
+            renderer.line("  - Deletes a file permanently (start with --trash to use the trash)");
+        }
+        renderer.line("  - File names are CASE-SENSITIVE for deletion");
+        renderer.line("  - Shows 'File Not Found' if file doesn't exist");
+        renderer.line();
+        renderer.line("Option 3: Search for a file");
+        renderer.line("  - Searches for a file in the current directory");
+        renderer.line("  - File names are CASE-SENSITIVE for searching");
+        renderer.line("  - Displays file details if found");
+        renderer.line();
+        renderer.line("Option 4: Search files by pattern");
+        renderer.line("  - Substring search is case-insensitive");
+        renderer.line("  - Glob search uses wildcards such as *.log or report-??.csv");
+        renderer.line("  - Regex search finds the expression anywhere in the name");
+        renderer.line();
+        renderer.line("Option 5: Bulk add/delete from a list file");
+        renderer.line("  - Reads file names from a text file, one per line");
+        renderer.line("  - Blank lines and lines starting with # are ignored");
+        renderer.line("  - Shows a summary of created, deleted and failed files");
+        renderer.line();
+        renderer.line("Option 6: Export file list");
+        renderer.line("  - Writes name, size, modification time and permissions of every file");
+        renderer.line("  - JSON Lines, NUL-separated or tab-separated, for use by other tools");
+        renderer.line();
+        renderer.line("Option 7: Restore a file from the trash");
+        renderer.line("  - Lists deleted files that can still be recovered");
+        renderer.line("  - Restores the most recently deleted copy of a name");
+        if (trashRetention != null) {
+            renderer.line("  - Files are purged from the trash automatically after "
+                          + FileManager.formatDuration(trashRetention));
+        }
+        renderer.line();
+        renderer.line("Option 8: Empty the trash");
+        renderer.line("  - Permanently deletes every file in the trash");
+        renderer.line();
+        renderer.line("Option 9: Find duplicate files");
+        renderer.line("  - Lists groups of files with byte-identical content");
+        renderer.line("  - Shows how much space deleting the extra copies would free");
+        renderer.line("  - Files are compared by size first, so most are never read");
+        renderer.line();
+        renderer.line("Option 10: Search file contents");
+        renderer.line("  - Lists every place the text appears inside the files, with its line");
+        renderer.line("  - Matching is CASE-SENSITIVE and positions are byte offsets");
+        renderer.line("  - Stops after the first 100 matches");
+        renderer.line();
+        renderer.line("Option 11: Return to Main Menu");
+        renderer.line("  - Goes back to the main application menu");
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
     /**
      * Displays application information
      */
     public void displayApplicationInfo() {
-        System.out.println("\n" + MENU_SEPARATOR);
-        System.out.println("        APPLICATION INFORMATION");
-        System.out.println(MENU_SEPARATOR);
-        System.out.println("Application: LockedMe.com File Manager");
-        System.out.println("Version: 1.0");
-        System.out.println("Developer: [Your Name]");
-        System.out.println("Company: Company Lockers Pvt. Ltd.");
-        System.out.println();
-        System.out.println("Description:");
-        System.out.println("A command-line file management application that allows");
-        System.out.println("users to perform basic file operations including:");
-        System.out.println("- Viewing files in sorted order");
-        System.out.println("- Adding new files");
-        System.out.println("- Deleting existing files");
-        System.out.println("- Searching for specific files");
-        System.out.println();
-        System.out.println("Features:");
-        System.out.println("- Efficient sorting algorithms");
-        System.out.println("- Case-sensitive file operations");
-        System.out.println("- Comprehensive error handling");
-        System.out.println("- User-friendly interface");
-        System.out.println("- Cross-platform compatibility");
-        System.out.println(MENU_SEPARATOR);
+        renderer.line("\n" + MENU_SEPARATOR);
+        renderer.line("        APPLICATION INFORMATION");
+        renderer.line(MENU_SEPARATOR);
+        renderer.line("Application: LockedMe.com File Manager");
+        renderer.line("Version: 1.0");
+        renderer.line("Developer: [Your Name]");
+        renderer.line("Company: Company Lockers Pvt. Ltd.");
+        renderer.line();
+        renderer.line("Description:");
+        renderer.line("A command-line file management application that allows");
+        renderer.line("users to perform basic file operations including:");
+        renderer.line("- Viewing files in sorted order");
+        renderer.line("- Adding new files");
+        renderer.line("- Deleting existing files");
+        renderer.line("- Searching for specific files");
+        renderer.line();
+        renderer.line("Features:");
+        renderer.line("- Efficient sorting algorithms");
+        renderer.line("- Case-sensitive file operations");
+        renderer.line("- Comprehensive error handling");
+        renderer.line("- User-friendly interface");
+        renderer.line("- Cross-platform compatibility");
+        renderer.line(MENU_SEPARATOR);
+        renderer.flush();
+    }
+    
+    /**
+     * Displays call counts, latency percentiles and errors per operation
+     */
+    public void displayStatistics(OperationStats stats) {
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("        OPERATION STATISTICS");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line(String.format("%-15s %8s %7s %10s %10s %10s", 
+                                    "Operation", "Calls", "Errors", "p50 ms", "p99 ms", "p99.9 ms"));
+        
+        for (OperationStats.Operation operation : OperationStats.Operation.values()) {
+            OperationStats.Snapshot snapshot = stats.snapshot(operation);
+            renderer.line(String.format("%-15s %8d %7d %10.3f %10.3f %10.3f", operation, 
+                                        snapshot.count(), snapshot.errors(), snapshot.p50Nanos() / 1e6,
+                                        snapshot.p99Nanos() / 1e6, snapshot.p999Nanos() / 1e6));
+        }
+        
+        boolean anyErrors = false;
+        for (OperationStats.Operation operation : OperationStats.Operation.values()) {
+            for (Map.Entry<String, Long> error : stats.getErrorCounts(operation).entrySet()) {
+                if (!anyErrors) {
+                    renderer.line();
+                    renderer.line("Errors by type:");
+                    anyErrors = true;
+                }
+                renderer.line("  " + operation + " " + error.getKey() + ": " + error.getValue());
+            }
+        }
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
+    }
+    
+    /**
+     * Displays the space taken by each subdirectory and its largest files
+     */
+    public void displayDiskUsage(DiskUsage.Report report, int maxDirectories) {
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("          DISK USAGE");
+        renderer.line(SUB_SEPARATOR);
+        
+        displayUsage(report.total());
+        for (int i = 0; i < Math.min(report.subdirectories().size(), maxDirectories); i++) {
+            renderer.line();
+            displayUsage(report.subdirectories().get(i));
+        }
+        if (report.subdirectories().size() > maxDirectories) {
+            renderer.line();
+            renderer.line("... and " + (report.subdirectories().size() - maxDirectories) + " more subdirectories");
+        }
+        
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("Directories: " + report.directoriesWalked() + ", re-read: " + report.directoriesListed());
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
+    }
+    
+    private void displayUsage(DiskUsage.Usage usage) {
+        renderer.line(String.format("%-30s %12s %8d file(s)", usage.path(),
+                                    FileManager.formatFileSize(usage.totalBytes()), usage.fileCount()));
+        for (DiskUsage.LargeFile file : usage.largestFiles()) {
+            renderer.line(String.format("  %12s  %s", FileManager.formatFileSize(file.size()), file.path()));
+        }
+    }
+    
+    /**
+     * Displays duplicate groups and the space they take
+     */
+    public void displayDuplicateReport(DuplicateFinder.Report report, int maxGroups) {
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("        DUPLICATE FILES");
+        renderer.line(SUB_SEPARATOR);
+        
+        if (report.groups().isEmpty()) {
+            renderer.line("No duplicate files found.");
+        }
+        for (int i = 0; i < Math.min(report.groups().size(), maxGroups); i++) {
+            DuplicateFinder.Group group = report.groups().get(i);
+            renderer.line(group.fileNames().size() + " copies of " + FileManager.formatFileSize(group.size()) + ":");
+            for (String fileName : group.fileNames()) {
+                renderer.line("  " + fileName);
+            }
+        }
+        if (report.groups().size() > maxGroups) {
+            renderer.line("... and " + (report.groups().size() - maxGroups) + " more group(s)");
+        }
+        
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("Groups: " + report.groups().size() + ", reclaimable: " 
+                      + FileManager.formatFileSize(report.reclaimableBytes()));
+        renderer.line("Files scanned: " + report.filesScanned() + ", fully read: " + report.filesFullyHashed()
+                      + (report.filesSkipped() > 0 ? ", skipped: " + report.filesSkipped() : ""));
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
     /**
      * Displays current directory information
      */
     public void displayDirectoryInfo(String directoryPath, int fileCount) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("       CURRENT DIRECTORY INFO");
-        System.out.println(SUB_SEPARATOR);
-        System.out.println("Working Directory: " + directoryPath);
-        System.out.println("Total Files: " + fileCount);
-        System.out.println("Status: " + (fileCount == 0 ? "Empty" : "Contains files"));
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("       CURRENT DIRECTORY INFO");
+        renderer.line(SUB_SEPARATOR);
+        renderer.line("Working Directory: " + directoryPath);
+        renderer.line("Total Files: " + fileCount);
+        renderer.line("Status: " + (fileCount == 0 ? "Empty" : "Contains files"));
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
     /**
      * Displays error message in a formatted way
      */
     public void displayError(String errorMessage) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("ERROR: " + errorMessage);
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("ERROR: " + errorMessage);
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
 
     public void displaySuccess(String successMessage) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("SUCCESS: " + successMessage);
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("SUCCESS: " + successMessage);
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
     /**
      * Displays warning message in a formatted way
      */
     public void displayWarning(String warningMessage) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("WARNING: " + warningMessage);
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("WARNING: " + warningMessage);
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
 
@@ -174,39 +359,44 @@ public class MenuHandler {
     
 
     public void displayOperationResult(String operation, String fileName, boolean success) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("OPERATION: " + operation.toUpperCase());
-        System.out.println("FILE: " + fileName);
-        System.out.println("RESULT: " + (success ? "SUCCESS" : "FAILED"));
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("OPERATION: " + operation.toUpperCase());
+        renderer.line("FILE: " + fileName);
+        renderer.line("RESULT: " + (success ? "SUCCESS" : "FAILED"));
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
 
     public void displayInputPrompt(String promptMessage) {
-        System.out.print("\n" + promptMessage + ": ");
+        renderer.text("\n" + promptMessage + ": ");
+        renderer.flush();
     }
     
 
     public void displayHeader(String title) {
-        System.out.println("\n" + MENU_SEPARATOR);
-        System.out.println("  " + title.toUpperCase());
-        System.out.println(MENU_SEPARATOR);
+        renderer.line("\n" + MENU_SEPARATOR);
+        renderer.line("  " + title.toUpperCase());
+        renderer.line(MENU_SEPARATOR);
+        renderer.flush();
     }
     
 
     public void displaySubHeader(String title) {
-        System.out.println("\n" + SUB_SEPARATOR);
-        System.out.println("  " + title);
-        System.out.println(SUB_SEPARATOR);
+        renderer.line("\n" + SUB_SEPARATOR);
+        renderer.line("  " + title);
+        renderer.line(SUB_SEPARATOR);
+        renderer.flush();
     }
     
 
     public void refreshScreen() {
         for (int i = 0; i < 2; i++) {
-            System.out.println();
+            renderer.line();
         }
         
-        System.out.println(MENU_SEPARATOR);
-        System.out.println("      LockedMe.com File Manager");
-        System.out.println(MENU_SEPARATOR);
+        renderer.line(MENU_SEPARATOR);
+        renderer.line("      LockedMe.com File Manager");
+        renderer.line(MENU_SEPARATOR);
+        renderer.flush();
     }
 }
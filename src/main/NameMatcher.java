@@ -0,0 +1,38 @@
+package main;
+
+/**
+ * NameMatcher.java - Compiled File Name Matcher
+ * Produced by MatcherCache for one query. A matcher may reuse internal
+ * state between calls, so each thread must use its own instance.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+@FunctionalInterface
+public interface NameMatcher {
+
+    /**
+     * Checks if a file name matches
+     * @param fileName Name to test
+     * @return true if the name matches, false otherwise
+     */
+    boolean matches(String fileName);
+
+    /**
+     * Checks if text contains a pattern, ignoring case, without allocating
+     * lower-case copies of either string
+     * @param text Text to search in
+     * @param pattern Pattern to look for
+     * @return true if the pattern occurs in the text, false otherwise
+     */
+    static boolean containsIgnoreCase(String text, String pattern) {
+        int last = text.length() - pattern.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, pattern, 0, pattern.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
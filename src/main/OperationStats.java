@@ -0,0 +1,327 @@
+package main;
+
+/**
+ * OperationStats.java - Latency and Error Statistics
+ * Counts calls, latencies and errors for each FileManager operation.
+ * Recording is lock-free: counters are LongAdders, and each latency lands
+ * in a log-scale bucket (8 buckets per power of two, so percentiles are
+ * within 12.5%), so a recording costs a few uncontended adds and never
+ * allocates. Snapshots and percentiles are computed only when read.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import main.jmx.OperationMXBean;
+
+public class OperationStats {
+
+    /**
+     * The operations that are measured
+     */
+    public enum Operation {
+        /** Full or paged listings of the directory, including those behind counts and searches */
+        LIST_FILES,
+        /** Looking up one file by name */
+        SEARCH_FILE,
+        ADD_FILE,
+        DELETE_FILE,
+        /** Substring, glob and regex name searches */
+        PATTERN_SEARCH
+    }
+
+    /**
+     * Statistics of one operation at one moment
+     * @param count Calls recorded
+     * @param errors Calls that failed with an error
+     * @param meanNanos Mean latency
+     * @param p50Nanos Median latency
+     * @param p99Nanos 99th percentile latency
+     * @param p999Nanos 99.9th percentile latency
+     * @param maxNanos Slowest call
+     */
+    public record Snapshot(long count, long errors, long meanNanos, long p50Nanos,
+                           long p99Nanos, long p999Nanos, long maxNanos) {
+    }
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+
+    /**
+     * Constructor
+     */
+    public OperationStats() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new Histogram());
+        }
+    }
+
+    /**
+     * Records one call
+     * @param operation Operation that ran
+     * @param startNanos System.nanoTime() when it started
+     */
+    public void record(Operation operation, long startNanos) {
+        histograms.get(operation).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records one call whose latency was measured by the caller
+     * @param operation Operation that ran
+     * @param nanos How long it took
+     */
+    public void recordLatency(Operation operation, long nanos) {
+        histograms.get(operation).record(nanos);
+    }
+
+    /**
+     * Counts an error; the call's latency is recorded separately with record()
+     * @param operation Operation that failed
+     * @param error What went wrong; counted by its class name
+     */
+    public void recordError(Operation operation, Throwable error) {
+        recordError(operation, error.getClass().getSimpleName());
+    }
+
+    /**
+     * Counts an error; the call's latency is recorded separately with record()
+     * @param operation Operation that failed
+     * @param type Kind of error
+     */
+    public void recordError(Operation operation, String type) {
+        histograms.get(operation).recordError(type);
+    }
+
+    /**
+     * Reads the statistics of one operation
+     * @param operation Operation to read
+     * @return Counts and latency percentiles
+     */
+    public Snapshot snapshot(Operation operation) {
+        return histograms.get(operation).snapshot();
+    }
+
+    /**
+     * Gets the errors of one operation by type
+     * @param operation Operation to read
+     * @return Error counts, sorted by type
+     */
+    public Map<String, Long> getErrorCounts(Operation operation) {
+        return histograms.get(operation).errorCounts();
+    }
+
+    /**
+     * Clears all counters and histograms
+     */
+    public void reset() {
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Publishes one MXBean per operation on the platform MBean server, named
+     * lockedme:type=FileManager,scope=SCOPE,operation=OPERATION
+     * @param scope Distinguishes this FileManager from others in the process
+     * @throws JMException if the beans cannot be registered
+     */
+    public synchronized void registerMBeans(String scope) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (Operation operation : Operation.values()) {
+            ObjectName name = new ObjectName("lockedme:type=FileManager,scope=" + ObjectName.quote(scope)
+                                             + ",operation=" + operation.name());
+            server.registerMBean(new OperationMXBeanImpl(operation), name);
+            registeredNames.add(name);
+        }
+    }
+
+    /**
+     * Removes the MXBeans published by registerMBeans()
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+        registeredNames.clear();
+    }
+
+    private class OperationMXBeanImpl implements OperationMXBean {
+
+        private final Operation operation;
+
+        OperationMXBeanImpl(Operation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public long getCount() {
+            return snapshot(operation).count();
+        }
+
+        @Override
+        public long getErrorCount() {
+            return snapshot(operation).errors();
+        }
+
+        @Override
+        public Map<String, Long> getErrorsByType() {
+            return getErrorCounts(operation);
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return snapshot(operation).meanNanos() / 1e6;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return snapshot(operation).p50Nanos() / 1e6;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return snapshot(operation).p99Nanos() / 1e6;
+        }
+
+        @Override
+        public double getP999Millis() {
+            return snapshot(operation).p999Nanos() / 1e6;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return snapshot(operation).maxNanos() / 1e6;
+        }
+
+        @Override
+        public void reset() {
+            histograms.get(operation).reset();
+        }
+    }
+
+    /**
+     * Log-linear latency histogram: values below 8 ns get a bucket each,
+     * larger values share 8 buckets per power of two
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+        Histogram() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets[bucketOf(value)].increment();
+            totalNanos.add(value);
+            maxNanos.accumulate(value);
+        }
+
+        void recordError(String type) {
+            errors.increment();
+            errorsByType.computeIfAbsent(type, key -> new LongAdder()).increment();
+        }
+
+        Snapshot snapshot() {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+
+            long max = maxNanos.get();
+            long mean = total == 0 ? 0 : totalNanos.sum() / total;
+            return new Snapshot(total, errors.sum(), mean,
+                                percentile(counts, total, 0.50, max),
+                                percentile(counts, total, 0.99, max),
+                                percentile(counts, total, 0.999, max),
+                                max);
+        }
+
+        Map<String, Long> errorCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            errorsByType.forEach((type, adder) -> counts.put(type, adder.sum()));
+            return counts;
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            totalNanos.reset();
+            maxNanos.reset();
+            errors.reset();
+            errorsByType.clear();
+        }
+
+        /**
+         * Gets the value at a percentile, as the upper edge of its bucket
+         * capped at the largest value seen
+         */
+        private static long percentile(long[] counts, long total, double fraction, long max) {
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return ((shift + 1) << SUB_BUCKET_BITS) | (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+            if (shift >= 63 - SUB_BUCKET_BITS) {
+                return Long.MAX_VALUE;
+            }
+            long lower = ((long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1)))) << shift;
+            return lower + (1L << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package main;
+
+/**
+ * OutputFormat.java - Record Output Formats
+ *
+ * TEXT       - tab-separated fields, one record per line
+ * JSON_LINES - one JSON object per line
+ * NUL        - every field terminated by a NUL character, so names that
+ *              contain tabs or newlines survive (like find -print0)
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+public enum OutputFormat {
+    TEXT,
+    JSON_LINES,
+    NUL;
+
+    /**
+     * Parses a format name as given on the command line
+     * @param name text, jsonl or nul (case-insensitive)
+     * @return The matching format
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static OutputFormat parse(String name) {
+        switch (name.toLowerCase()) {
+            case "text":
+                return TEXT;
+            case "jsonl":
+            case "json":
+                return JSON_LINES;
+            case "nul":
+            case "null":
+                return NUL;
+            default:
+                throw new IllegalArgumentException("Unknown output format: " + name + " (use text, jsonl or nul)");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package main;
+
+/**
+ * RecordWriter.java - Streaming Machine-readable Output
+ * Writes file records (name, size, modification time and permissions) and
+ * command status records in one of the OutputFormats. Records are encoded
+ * into a reusable buffer and handed to the underlying Writer in blocks,
+ * so streaming a large listing does not build a String per entry.
+ *
+ * File record fields:   name, size (bytes), mtime (epoch millis), permissions (e.g. rw-)
+ * Status record fields: status, command, argument, detail (may be empty)
+ *
+ * A writer is not thread-safe.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+public class RecordWriter implements Flushable {
+
+    private static final int BLOCK_SIZE = 8192;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final OutputFormat format;
+    private final StringBuilder buffer = new StringBuilder(BLOCK_SIZE * 2);
+    private char[] block = new char[BLOCK_SIZE * 2];
+
+    /**
+     * Constructor
+     * @param out Destination of the records
+     * @param format Encoding of each record
+     */
+    public RecordWriter(Writer out, OutputFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Writes one file record
+     * @param details File to describe
+     * @throws IOException if the output cannot be written
+     */
+    public void writeFile(FileDetails details) throws IOException {
+        switch (format) {
+            case JSON_LINES:
+                buffer.append("{\"name\":");
+                appendJsonString(details.name());
+                buffer.append(",\"size\":").append(details.size());
+                buffer.append(",\"mtime\":").append(details.lastModified());
+                buffer.append(",\"permissions\":\"");
+                appendPermissions(details);
+                buffer.append("\"}\n");
+                break;
+            case NUL:
+                buffer.append(details.name()).append('\0');
+                buffer.append(details.size()).append('\0');
+                buffer.append(details.lastModified()).append('\0');
+                appendPermissions(details);
+                buffer.append('\0');
+                break;
+            default:
+                buffer.append(details.name()).append('\t');
+                buffer.append(details.size()).append('\t');
+                buffer.append(details.lastModified()).append('\t');
+                appendPermissions(details);
+                buffer.append('\n');
+        }
+        writeIfFull();
+    }
+
+    /**
+     * Writes a record holding only a file name, for listings that do not
+     * need attributes
+     * @param fileName Name to write
+     * @throws IOException if the output cannot be written
+     */
+    public void writeName(String fileName) throws IOException {
+        switch (format) {
+            case JSON_LINES:
+                buffer.append("{\"name\":");
+                appendJsonString(fileName);
+                buffer.append("}\n");
+                break;
+            case NUL:
+                buffer.append(fileName).append('\0');
+                break;
+            default:
+                buffer.append(fileName).append('\n');
+        }
+        writeIfFull();
+    }
+
+    /**
+     * Writes one command status record
+     * @param status Result of the command, e.g. CREATED or NOT_FOUND
+     * @param command Command that was run
+     * @param argument Argument of the command
+     * @param detail Extra information, or null for none
+     * @throws IOException if the output cannot be written
+     */
+    public void writeStatus(String status, String command, String argument, String detail) throws IOException {
+        switch (format) {
+            case JSON_LINES:
+                buffer.append("{\"status\":");
+                appendJsonString(status);
+                buffer.append(",\"command\":");
+                appendJsonString(command);
+                buffer.append(",\"argument\":");
+                appendJsonString(argument);
+                if (detail != null) {
+                    buffer.append(",\"detail\":");
+                    appendJsonString(detail);
+                }
+                buffer.append("}\n");
+                break;
+            case NUL:
+                // Always four fields, so readers can consume records in fixed groups
+                buffer.append(status).append('\0');
+                buffer.append(command).append('\0');
+                buffer.append(argument).append('\0');
+                buffer.append(detail == null ? "" : detail).append('\0');
+                break;
+            default:
+                buffer.append(status).append('\t').append(command).append('\t').append(argument);
+                if (detail != null) {
+                    buffer.append('\t').append(detail);
+                }
+                buffer.append('\n');
+        }
+        writeIfFull();
+    }
+
+    /**
+     * Writes any buffered records and flushes the underlying Writer
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+        out.flush();
+    }
+
+    private void appendPermissions(FileDetails details) {
+        buffer.append(details.readable() ? 'r' : '-')
+              .append(details.writable() ? 'w' : '-')
+              .append(details.executable() ? 'x' : '-');
+    }
+
+    private void appendJsonString(String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < 0x20) {
+                buffer.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                buffer.append(c);
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void writeIfFull() throws IOException {
+        if (buffer.length() >= BLOCK_SIZE) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        int length = buffer.length();
+        if (length == 0) {
+            return;
+        }
+        if (block.length < length) {
+            block = new char[length];
+        }
+        buffer.getChars(0, length, block, 0);
+        out.write(block, 0, length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,265 @@
+package main;
+
+/**
+ * ScriptRunner.java - Non-interactive Command Mode
+ * Reads one command per line from a script file or standard input and
+ * writes one tab-separated result line per command. There are no menus,
+ * pauses or screen clears, so the tool can be driven from cron jobs and
+ * pipelines.
+ *
+ * Commands:
+ *   add NAME               create a file
+ *   delete NAME            delete a file
+ *   search NAME            look up a file by exact name
+ *   list                   list all files in ascending order
+ *   find [--glob|--regex] PATTERN
+ *                          list the files matching a pattern (substring by default)
+ *
+ * In the default TEXT format, result lines have the form STATUS, command,
+ * argument and an optional detail, separated by tabs. list and find stream
+ * the matching names, one per line, and end with their result line, whose
+ * count says how many came before it. In the JSON_LINES and NUL formats
+ * every result is a status record; list and find stream full file records
+ * ahead of theirs, and a successful search is followed by one (see
+ * RecordWriter). Nothing is collected in memory, so listing a huge
+ * directory costs no more than the sort behind it.
+ * Blank lines and lines starting with # are ignored.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+public class ScriptRunner {
+
+    private final FileManager fileManager;
+    private final InputValidator inputValidator;
+    private final RecordWriter records;
+
+    private long commandCount;
+    private long failureCount;
+
+    /**
+     * Constructor for tab-separated text output
+     * @param fileManager File manager to run the commands against
+     * @param inputValidator Validates file names before add, delete and search
+     * @param out Receives the result lines
+     */
+    public ScriptRunner(FileManager fileManager, InputValidator inputValidator, Writer out) {
+        this(fileManager, inputValidator, out, OutputFormat.TEXT);
+    }
+
+    /**
+     * Constructor
+     * @param fileManager File manager to run the commands against
+     * @param inputValidator Validates file names before add, delete and search
+     * @param out Receives the results
+     * @param format TEXT for result lines and bare names, JSON_LINES or NUL
+     *               for status records and full file records
+     */
+    public ScriptRunner(FileManager fileManager, InputValidator inputValidator, Writer out,
+                        OutputFormat format) {
+        this.fileManager = fileManager;
+        this.inputValidator = inputValidator;
+        this.records = new RecordWriter(out, format);
+    }
+
+    /**
+     * Runs every command until the end of the input
+     * @param in Script to read
+     * @return Number of commands that failed
+     * @throws IOException if the script cannot be read or the output cannot be written
+     */
+    public long run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            execute(line);
+
+            // Flush whenever the input runs dry, so a pipeline sees each
+            // result promptly while a script file is written in large blocks
+            if (!in.ready()) {
+                records.flush();
+            }
+        }
+        records.flush();
+        return failureCount;
+    }
+
+    /**
+     * Parses and runs a single command line
+     * @param line Command line
+     * @throws IOException if the result cannot be written
+     */
+    public void execute(String line) throws IOException {
+        int start = skipWhitespace(line, 0);
+        if (start == line.length() || line.charAt(start) == '#') {
+            return;
+        }
+
+        int end = start;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        String command = line.substring(start, end);
+        String argument = line.substring(skipWhitespace(line, end)).trim();
+        commandCount++;
+
+        try {
+            switch (command) {
+                case "add":
+                    runAdd(argument);
+                    break;
+                case "delete":
+                    runDelete(argument);
+                    break;
+                case "search":
+                    runSearch(argument);
+                    break;
+                case "list":
+                    runList(argument);
+                    break;
+                case "find":
+                    runFind(argument);
+                    break;
+                default:
+                    fail(command, argument, "unknown command");
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(command, argument, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets the number of commands run so far, not counting blank or comment lines
+     * @return Command count
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Gets the number of commands that failed so far
+     * @return Failure count
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    private void runAdd(String fileName) throws IOException {
+        if (!checkFileName("add", fileName)) {
+            return;
+        }
+        report("add", fileName, fileManager.tryAddFile(fileName));
+    }
+
+    private void runDelete(String fileName) throws IOException {
+        if (!checkFileName("delete", fileName)) {
+            return;
+        }
+        report("delete", fileName, fileManager.tryDeleteFile(fileName));
+    }
+
+    private void runSearch(String fileName) throws IOException {
+        if (!checkFileName("search", fileName)) {
+            return;
+        }
+
+        FileOperationResult result = fileManager.trySearchFile(fileName);
+        if (result.getStatus().isError()) {
+            report("search", fileName, result);
+            return;
+        }
+
+        FileDetails details = result.getFileDetails();
+        if (details == null) {
+            // Not finding a file is an answer, not a failure
+            writeResult("NOT_FOUND", "search", fileName, null);
+        } else if (records.getFormat() == OutputFormat.TEXT) {
+            writeResult("FOUND", "search", fileName, details.size() + "\t" + details.lastModified());
+        } else {
+            writeResult("FOUND", "search", fileName, "1");
+            records.writeFile(details);
+        }
+    }
+
+    private void runList(String argument) throws IOException {
+        if (!argument.isEmpty()) {
+            fail("list", argument, "list takes no argument");
+            return;
+        }
+
+        // The count is only known once the listing has been streamed, so the
+        // result line comes after the files
+        long count = records.getFormat() == OutputFormat.TEXT
+            ? fileManager.writeFileNames(records)
+            : fileManager.writeFileListing(records);
+        writeResult("OK", "list", "", String.valueOf(count));
+    }
+
+    private void runFind(String argument) throws IOException {
+        SearchMode mode = SearchMode.SUBSTRING;
+        String pattern = argument;
+
+        if (argument.startsWith("--glob ")) {
+            mode = SearchMode.GLOB;
+            pattern = argument.substring("--glob ".length()).trim();
+        } else if (argument.startsWith("--regex ")) {
+            mode = SearchMode.REGEX;
+            pattern = argument.substring("--regex ".length()).trim();
+        }
+
+        if (pattern.isEmpty()) {
+            fail("find", argument, "pattern cannot be empty");
+            return;
+        }
+
+        long count = records.getFormat() == OutputFormat.TEXT
+            ? fileManager.writeSearchNames(pattern, mode, records)
+            : fileManager.writeSearchResults(pattern, mode, records);
+        writeResult("OK", "find", pattern, String.valueOf(count));
+    }
+
+    /**
+     * Validates a name, reporting INVALID_NAME with the broken rule and
+     * the offending position as detail, e.g. UNSAFE_CHARACTER@3
+     * @return true if the name is valid
+     */
+    private boolean checkFileName(String command, String fileName) throws IOException {
+        ValidationResult result = inputValidator.validateFileName(fileName);
+        if (result.isValid()) {
+            return true;
+        }
+
+        int position = inputValidator.findViolation(fileName);
+        failureCount++;
+        writeResult(FileOperationResult.Status.INVALID_NAME.name(), command, fileName,
+                    position < 0 ? result.name() : result.name() + "@" + position);
+        return false;
+    }
+
+    private void report(String command, String fileName, FileOperationResult result) throws IOException {
+        if (!result.isSuccess()) {
+            failureCount++;
+        }
+        writeResult(result.getStatus().name(), command, fileName, result.getDetail());
+    }
+
+    private void fail(String command, String argument, String detail) throws IOException {
+        failureCount++;
+        writeResult("ERROR", command, argument, detail);
+    }
+
+    private void writeResult(String status, String command, String argument, String detail) throws IOException {
+        records.writeStatus(status, command, argument, detail);
+    }
+
+    private static int skipWhitespace(String line, int from) {
+        while (from < line.length() && Character.isWhitespace(line.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+}
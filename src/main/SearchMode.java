@@ -0,0 +1,18 @@
+package main;
+
+/**
+ * SearchMode.java - File Name Search Modes
+ *
+ * SUBSTRING - case-insensitive "contains" match (e.g. report)
+ * GLOB      - file system glob syntax (e.g. *.log, report-2026-??.csv)
+ * REGEX     - java.util.regex pattern found anywhere in the name
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+public enum SearchMode {
+    SUBSTRING,
+    GLOB,
+    REGEX
+}
@@ -0,0 +1,397 @@
+package main;
+
+/**
+ * Trash.java - Recoverable Deletes
+ * Moves deleted files into .lockedme/trash inside the managed directory.
+ * A rename within one file system is a constant-time metadata change no
+ * matter how large the file is, so deleting returns at once and the file
+ * can be restored until it is purged.
+ *
+ * Trashed files are stored as MILLIS-SEQUENCE, so deleting the same name
+ * twice never collides and the newest copy is the one restored. The name
+ * the file had is kept in MILLIS-SEQUENCE.name next to it rather than in
+ * the stored name, which would push a long name past the file system's
+ * 255 byte limit.
+ * One background purger thread removes files older than the retention
+ * window, pausing after each in proportion to its size so that reclaiming
+ * space does not saturate the disk.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Trash implements AutoCloseable {
+
+    private static final Duration MIN_PURGE_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MAX_PURGE_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration ORPHAN_GRACE = Duration.ofMinutes(1);
+    private static final String NAME_SUFFIX = ".name";
+
+    /**
+     * A file waiting in the trash
+     * @param fileName Name the file had in the managed directory
+     * @param deletedMillis When it was deleted, in epoch milliseconds
+     * @param size Size in bytes
+     */
+    public record Entry(String fileName, long deletedMillis, long size) {
+    }
+
+    /**
+     * A trashed file on disk and the name file that records what it was called
+     */
+    private record Stored(Path file, Path nameFile, String fileName, long deletedMillis) {
+    }
+
+    private final Path directory;
+    private final Path trashDirectory;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object purgeLock = new Object();
+
+    private volatile Duration retention = Duration.ofDays(7);
+    private volatile long purgeBytesPerSecond;
+    private boolean purging;
+    private Thread purgerThread;
+
+    /**
+     * Constructor - nothing is created on disk until a file is trashed
+     * @param directory Managed directory whose deletes go to this trash
+     */
+    public Trash(Path directory) {
+        this.directory = directory;
+        this.trashDirectory = directory.resolve(FileManager.DATA_DIRECTORY).resolve("trash");
+    }
+
+    /**
+     * Gets the directory trashed files are kept in
+     * @return Trash directory
+     */
+    public Path getTrashDirectory() {
+        return trashDirectory;
+    }
+
+    /**
+     * Moves a file from the managed directory into the trash with an atomic rename
+     * @param fileName Name of the file in the managed directory
+     * @throws IOException if the file cannot be moved
+     */
+    public void moveToTrash(String fileName) throws IOException {
+        Files.createDirectories(trashDirectory);
+        Path source = directory.resolve(fileName);
+
+        Path target;
+        Path nameFile;
+        do {
+            target = trashDirectory.resolve(System.currentTimeMillis() + "-" + sequence.incrementAndGet());
+            nameFile = nameFileFor(target);
+        } while (Files.exists(target, LinkOption.NOFOLLOW_LINKS) || Files.exists(nameFile, LinkOption.NOFOLLOW_LINKS));
+
+        // Name first: a crash in between leaves a name without a file, which is skipped and purged
+        Files.write(nameFile, fileName.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(nameFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Moves the most recently trashed copy of a file back into the managed directory
+     * @param fileName Name the file had when it was deleted
+     * @return true if a copy was restored, false if none is in the trash
+     * @throws FileAlreadyExistsException if a file with that name exists again
+     * @throws IOException if the trash cannot be read or the file cannot be moved
+     */
+    public boolean restore(String fileName) throws IOException {
+        Stored newest = null;
+
+        for (Stored stored : storedFiles()) {
+            if (fileName.equals(stored.fileName()) && Files.exists(stored.file(), LinkOption.NOFOLLOW_LINKS)
+                && (newest == null || stored.deletedMillis() > newest.deletedMillis())) {
+                newest = stored;
+            }
+        }
+
+        if (newest == null) {
+            return false;
+        }
+
+        Path target = directory.resolve(fileName);
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+        Files.move(newest.file(), target, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(newest.nameFile());
+        return true;
+    }
+
+    /**
+     * Lists the files in the trash
+     * @return Entries, most recently deleted first
+     * @throws IOException if the trash cannot be read
+     */
+    public List<Entry> list() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (Stored stored : storedFiles()) {
+            try {
+                entries.add(new Entry(stored.fileName(), stored.deletedMillis(), Files.size(stored.file())));
+            } catch (NoSuchFileException e) {
+                // Purged or restored while listing, or never fully trashed
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(Entry::deletedMillis).reversed());
+        return entries;
+    }
+
+    /**
+     * Permanently deletes everything in the trash, without throttling
+     * @return Number of files deleted
+     * @throws IOException if the trash cannot be read or a file cannot be deleted
+     */
+    public int empty() throws IOException {
+        int deleted = 0;
+        for (Stored stored : storedFiles()) {
+            if (Files.deleteIfExists(stored.file())) {
+                deleted++;
+            }
+            Files.deleteIfExists(stored.nameFile());
+        }
+        return deleted;
+    }
+
+    /**
+     * Permanently deletes the files that have been in the trash longer than
+     * the retention window, oldest first
+     * @return Number of files deleted
+     * @throws IOException if the trash cannot be read or a file cannot be deleted
+     */
+    public int purgeExpired() throws IOException {
+        return purgeExpired(false);
+    }
+
+    /**
+     * Starts the background purger, or updates its settings if it is running
+     * @param retention How long trashed files are kept
+     * @param bytesPerSecond Most bytes the purger deletes per second, or 0 for no limit
+     */
+    public void startPurger(Duration retention, long bytesPerSecond) {
+        if (retention == null || retention.isNegative()) {
+            throw new IllegalArgumentException("Retention cannot be negative");
+        }
+        if (bytesPerSecond < 0) {
+            throw new IllegalArgumentException("Purge rate cannot be negative");
+        }
+
+        synchronized (purgeLock) {
+            this.retention = retention;
+            this.purgeBytesPerSecond = bytesPerSecond;
+            purging = true;
+
+            if (purgerThread == null) {
+                purgerThread = new Thread(this::purgeLoop, "Trash-purger");
+                purgerThread.setDaemon(true);
+                purgerThread.start();
+            } else {
+                purgeLock.notifyAll(); // Apply the new retention now
+            }
+        }
+    }
+
+    /**
+     * Gets how long trashed files are kept
+     * @return Retention window
+     */
+    public Duration getRetention() {
+        return retention;
+    }
+
+    /**
+     * Checks if the background purger is running
+     * @return true if expired files are being purged
+     */
+    public boolean isPurging() {
+        synchronized (purgeLock) {
+            return purging;
+        }
+    }
+
+    /**
+     * Stops the background purger. Trashed files stay where they are
+     */
+    @Override
+    public void close() {
+        synchronized (purgeLock) {
+            purging = false;
+            purgerThread = null;
+            purgeLock.notifyAll();
+        }
+    }
+
+    /**
+     * Purger loop - purges, then sleeps for a fraction of the retention window
+     */
+    private void purgeLoop() {
+        while (true) {
+            try {
+                purgeExpired(true);
+            } catch (IOException e) {
+                // Retried on the next pass
+            }
+
+            synchronized (purgeLock) {
+                if (!purging || purgerThread != Thread.currentThread()) {
+                    return;
+                }
+                try {
+                    purgeLock.wait(purgeInterval().toMillis());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (!purging || purgerThread != Thread.currentThread()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int purgeExpired(boolean throttled) throws IOException {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+
+        List<Stored> expired = new ArrayList<>();
+        for (Stored stored : storedFiles()) {
+            if (stored.deletedMillis() <= cutoff) {
+                expired.add(stored);
+            }
+        }
+        expired.sort(Comparator.comparingLong(Stored::deletedMillis));
+
+        int deleted = 0;
+        for (Stored stored : expired) {
+            if (throttled && !isPurging()) {
+                break;
+            }
+
+            long size;
+            try {
+                size = Files.size(stored.file());
+            } catch (NoSuchFileException e) {
+                size = -1; // Restored in the meantime, or never fully trashed
+            }
+
+            if (size >= 0 && Files.deleteIfExists(stored.file())) {
+                deleted++;
+                if (throttled) {
+                    pauseFor(size);
+                }
+            }
+            // A name without a file is only an orphan once no delete can still be writing it
+            boolean orphan = size < 0 && stored.deletedMillis() <= cutoff - ORPHAN_GRACE.toMillis();
+            if (size >= 0 || orphan) {
+                Files.deleteIfExists(stored.nameFile());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Waits long enough that deleting this many bytes stays within the purge rate
+     */
+    private void pauseFor(long bytes) {
+        long rate = purgeBytesPerSecond;
+        if (rate <= 0) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + bytes * 1_000_000_000L / rate;
+        synchronized (purgeLock) {
+            long remaining;
+            while (purging && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    purgeLock.wait(Math.max(1, remaining / 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Duration purgeInterval() {
+        Duration interval = retention.dividedBy(10);
+        if (interval.compareTo(MIN_PURGE_INTERVAL) < 0) {
+            return MIN_PURGE_INTERVAL;
+        }
+        return interval.compareTo(MAX_PURGE_INTERVAL) > 0 ? MAX_PURGE_INTERVAL : interval;
+    }
+
+    /**
+     * Gets every well-formed trash entry, read from its name file; anything
+     * else in the directory is left alone. The trashed file itself may be
+     * missing if it was restored meanwhile or a crash cut the delete short
+     */
+    private List<Stored> storedFiles() throws IOException {
+        List<Stored> stored = new ArrayList<>();
+        if (!Files.isDirectory(trashDirectory)) {
+            return stored;
+        }
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(trashDirectory, "*" + NAME_SUFFIX)) {
+            for (Path nameFile : entries) {
+                String nameFileName = nameFile.getFileName().toString();
+                String id = nameFileName.substring(0, nameFileName.length() - NAME_SUFFIX.length());
+                if (!isStoredId(id)) {
+                    continue;
+                }
+
+                String fileName;
+                try {
+                    fileName = new String(Files.readAllBytes(nameFile), StandardCharsets.UTF_8);
+                } catch (NoSuchFileException e) {
+                    continue; // Restored or purged while listing
+                }
+                stored.add(new Stored(trashDirectory.resolve(id), nameFile, fileName,
+                                      Long.parseLong(id.substring(0, id.indexOf('-')))));
+            }
+        }
+        return stored;
+    }
+
+    private static Path nameFileFor(Path stored) {
+        return stored.resolveSibling(stored.getFileName() + NAME_SUFFIX);
+    }
+
+    /**
+     * Checks for the MILLIS-SEQUENCE form
+     */
+    private static boolean isStoredId(String id) {
+        int dash = id.indexOf('-');
+        // At most 18 digits of milliseconds, so parsing can never overflow
+        if (dash <= 0 || dash > 18 || dash == id.length() - 1) {
+            return false;
+        }
+
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (i != dash && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
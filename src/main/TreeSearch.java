@@ -0,0 +1,167 @@
+package main;
+
+/**
+ * TreeSearch.java - Parallel Recursive File Name Search
+ * Walks a directory tree on a ForkJoinPool, one task per directory, and
+ * hands each match to the caller as soon as it is found. The walk stops
+ * early once the requested number of matches has been reported.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+class TreeSearch {
+
+    private static final LinkOption[] NO_FOLLOW = { LinkOption.NOFOLLOW_LINKS };
+    private static final LinkOption[] FOLLOW = {};
+
+    private final Path root;
+    private final Supplier<NameMatcher> matcherFactory;
+    private final TreeSearchOptions options;
+    private final Consumer<String> onMatch;
+    private final LinkOption[] linkOptions;
+
+    private final AtomicInteger matchCount = new AtomicInteger();
+    private final Set<Object> visitedDirectories = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped;
+
+    /**
+     * Constructor
+     * @param root Directory to search under
+     * @param matcherFactory Creates one name matcher per task (matchers are not thread-safe)
+     * @param options Walk settings
+     * @param onMatch Receives the path of each match relative to root; called from worker threads
+     */
+    TreeSearch(Path root, Supplier<NameMatcher> matcherFactory, TreeSearchOptions options,
+               Consumer<String> onMatch) {
+        this.root = root;
+        this.matcherFactory = matcherFactory;
+        this.options = options;
+        this.onMatch = onMatch;
+        this.linkOptions = options.isFollowLinks() ? FOLLOW : NO_FOLLOW;
+    }
+
+    /**
+     * Runs the search and waits for it to finish or stop early
+     * @return Number of matches reported
+     */
+    int run() {
+        ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+        try {
+            pool.invoke(new DirectoryTask(root, 1));
+        } finally {
+            pool.shutdown();
+        }
+        return Math.min(matchCount.get(), options.getMaxResults());
+    }
+
+    /**
+     * Reports a match unless the result limit has already been reached
+     */
+    private void report(Path file) {
+        int count = matchCount.incrementAndGet();
+        if (count > options.getMaxResults()) {
+            stopped = true;
+            return;
+        }
+
+        onMatch.accept(root.relativize(file).toString());
+
+        if (count == options.getMaxResults()) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Searches one directory and forks a task per subdirectory
+     */
+    private class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+        private final int depth;
+
+        DirectoryTask(Path directory, int depth) {
+            this.directory = directory;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopped || !markVisited()) {
+                return;
+            }
+
+            NameMatcher matcher = matcherFactory.get();
+            List<DirectoryTask> subtasks = new ArrayList<>();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    if (stopped) {
+                        break;
+                    }
+
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class, linkOptions);
+                    } catch (IOException e) {
+                        continue; // Entry vanished or is a broken link
+                    }
+
+                    if (attributes.isDirectory()) {
+                        // The trash and other application data are not managed files
+                        boolean dataDirectory = entry.getFileName().toString().equals(FileManager.DATA_DIRECTORY);
+                        if (depth < options.getMaxDepth() && !dataDirectory) {
+                            DirectoryTask subtask = new DirectoryTask(entry, depth + 1);
+                            subtask.fork();
+                            subtasks.add(subtask);
+                        }
+                    } else if (attributes.isRegularFile()
+                               && matcher.matches(entry.getFileName().toString())) {
+                        report(entry);
+                    }
+                }
+            } catch (IOException | SecurityException e) {
+                // Unreadable directories are skipped, the rest of the tree is still searched
+            }
+
+            for (DirectoryTask subtask : subtasks) {
+                subtask.join();
+            }
+        }
+
+        /**
+         * Guards against symlink cycles when links are followed
+         * @return true if this directory has not been searched yet
+         */
+        private boolean markVisited() {
+            if (!options.isFollowLinks()) {
+                return true;
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+                Object key = attributes.fileKey() != null ? attributes.fileKey() : directory.toRealPath();
+                return visitedDirectories.add(key);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package main;
+
+/**
+ * TreeSearchOptions.java - Settings for Recursive Searches
+ * Controls how FileManager walks subdirectories: worker parallelism,
+ * maximum depth, whether symbolic links are followed, and how many
+ * matches to collect before stopping early.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+public class TreeSearchOptions {
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxDepth = Integer.MAX_VALUE;
+    private boolean followLinks;
+    private int maxResults = Integer.MAX_VALUE;
+
+    /**
+     * Sets the number of worker threads
+     * @param parallelism Number of workers, at least 1
+     * @return These options
+     */
+    public TreeSearchOptions setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets how deep to descend; 1 searches only the working directory itself
+     * @param maxDepth Maximum depth, at least 1
+     * @return These options
+     */
+    public TreeSearchOptions setMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Max depth must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Sets whether symbolic links to directories are followed
+     * @param followLinks true to follow links, false to skip them
+     * @return These options
+     */
+    public TreeSearchOptions setFollowLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+        return this;
+    }
+
+    /**
+     * Sets the number of matches after which the search stops
+     * @param maxResults Maximum number of matches, at least 1
+     * @return These options
+     */
+    public TreeSearchOptions setMaxResults(int maxResults) {
+        if (maxResults < 1) {
+            throw new IllegalArgumentException("Max results must be at least 1");
+        }
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean isFollowLinks() {
+        return followLinks;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+}
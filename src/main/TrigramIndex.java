@@ -0,0 +1,220 @@
+package main;
+
+/**
+ * TrigramIndex.java - Substring Index for File Names
+ * Maps every 3-character sequence (trigram) of a case-folded file name to
+ * a posting list of name ids. A substring query of 3 or more characters
+ * only has to verify the names whose ids appear in the posting lists of
+ * all of its trigrams, instead of scanning every name.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class TrigramIndex {
+
+    private static final int MIN_QUERY_LENGTH = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<String, Integer> idsByName = new HashMap<>();
+
+    // Ids are handed out in increasing order, so every posting list is sorted.
+    // Removed names leave a null slot behind until the index is compacted.
+    private String[] namesById = new String[1024];
+    private int nextId;
+    private int removedCount;
+
+    /**
+     * Adds a file name to the index
+     * @param fileName Name to add
+     */
+    void add(String fileName) {
+        lock.writeLock().lock();
+        try {
+            if (idsByName.containsKey(fileName)) {
+                return;
+            }
+
+            int id = nextId++;
+            if (id == namesById.length) {
+                namesById = Arrays.copyOf(namesById, namesById.length * 2);
+            }
+            namesById[id] = fileName;
+            idsByName.put(fileName, id);
+
+            for (int i = 0; i + MIN_QUERY_LENGTH <= fileName.length(); i++) {
+                postings.computeIfAbsent(trigramAt(fileName, i), key -> new IntList()).append(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a file name from the index
+     * @param fileName Name to remove
+     */
+    void remove(String fileName) {
+        lock.writeLock().lock();
+        try {
+            Integer id = idsByName.remove(fileName);
+            if (id == null) {
+                return;
+            }
+
+            namesById[id] = null;
+            removedCount++;
+
+            // Drop stale ids once they outnumber live names
+            if (removedCount > idsByName.size() && removedCount > 1024) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a pattern can be answered from the index. Supplementary
+     * characters fold as code points in regionMatches, not as the single
+     * chars indexed here, so such patterns are left to a scan
+     * @param pattern Substring pattern
+     * @return true if search() can be used, false otherwise
+     */
+    static boolean canSearch(String pattern) {
+        if (pattern.length() < MIN_QUERY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            if (Character.isSurrogate(pattern.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the names containing a pattern, ignoring case
+     * @param pattern Substring accepted by canSearch()
+     * @return Matching names in ascending order
+     */
+    List<String> search(String pattern) {
+        if (!canSearch(pattern)) {
+            throw new IllegalArgumentException("Pattern cannot use trigram search: " + pattern);
+        }
+
+        lock.readLock().lock();
+        try {
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + MIN_QUERY_LENGTH <= pattern.length(); i++) {
+                IntList list = postings.get(trigramAt(pattern, i));
+                if (list == null) {
+                    return new ArrayList<>(); // Some trigram occurs in no name
+                }
+                lists.add(list);
+            }
+
+            // Intersect starting from the most selective list
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            int[] candidates = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+            int candidateCount = candidates.length;
+            for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+                candidateCount = lists.get(i).retainIn(candidates, candidateCount);
+            }
+
+            List<String> matches = new ArrayList<>();
+            for (int i = 0; i < candidateCount; i++) {
+                String name = namesById[candidates[i]];
+                // Trigrams only narrow the search; the pattern must still be verified
+                if (name != null && NameMatcher.containsIgnoreCase(name, pattern)) {
+                    matches.add(name);
+                }
+            }
+
+            Collections.sort(matches);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the posting lists from the live names only
+     */
+    private void compact() {
+        String[] live = idsByName.keySet().toArray(new String[0]);
+        postings.clear();
+        idsByName.clear();
+        namesById = new String[Math.max(1024, live.length * 2)];
+        nextId = 0;
+        removedCount = 0;
+
+        // Called with the write lock held; add() re-enters it
+        for (String name : live) {
+            add(name);
+        }
+    }
+
+    /**
+     * Packs the case-folded trigram starting at an offset into a key. Folding
+     * matches String.regionMatches(ignoreCase), so every name that passes
+     * NameMatcher.containsIgnoreCase shares all of the pattern's trigrams
+     */
+    private static long trigramAt(String text, int offset) {
+        return ((long) fold(text.charAt(offset)) << 32)
+             | ((long) fold(text.charAt(offset + 1)) << 16)
+             | fold(text.charAt(offset + 2));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Growable, sorted list of name ids
+     */
+    private static class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void append(int value) {
+            // A trigram repeated within one name must only be listed once
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Keeps only the candidates that are also in this list
+         * @return New candidate count
+         */
+        int retainIn(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int position = Arrays.binarySearch(values, from, size, candidates[i]);
+                if (position >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
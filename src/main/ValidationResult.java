@@ -0,0 +1,39 @@
+package main;
+
+/**
+ * ValidationResult.java - Outcome of a File Name Validation
+ * The first rule a name breaks, checked in the order listed here.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+public enum ValidationResult {
+    VALID("Filename is valid"),
+    EMPTY("Filename cannot be empty"),
+    TOO_LONG("Filename too long (max 255 characters)"),
+    UNSAFE_CHARACTER("Filename contains invalid characters"),
+    RESERVED_NAME("Filename is a reserved filename"),
+    INVALID_FORMAT("Invalid filename format");
+
+    private final String message;
+
+    ValidationResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return true if the name passed every rule
+     */
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    /**
+     * Gets a short description of the result
+     * @return Description suitable for an error message
+     */
+    public String getMessage() {
+        return message;
+    }
+}
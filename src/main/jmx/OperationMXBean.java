@@ -0,0 +1,47 @@
+package main.jmx;
+
+/**
+ * OperationMXBean.java - JMX View of One File Operation
+ * Published by OperationStats for each operation it measures. JMX reads
+ * this interface reflectively, so it lives in the one package the module
+ * exports; the statistics themselves stay internal. Times are in
+ * milliseconds.
+ *
+ * @author Chirag
+ * @version 1.01
+ */
+
+import java.util.Map;
+
+public interface OperationMXBean {
+
+    /**
+     * @return Calls recorded
+     */
+    long getCount();
+
+    /**
+     * @return Calls that failed with an error
+     */
+    long getErrorCount();
+
+    /**
+     * @return Error counts keyed by exception class name
+     */
+    Map<String, Long> getErrorsByType();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    /**
+     * Clears the counters and histogram of this operation
+     */
+    void reset();
+}
@@ -5,4 +5,10 @@
  * 
  */
 module Assesment1_OOPS {
-}
\ No newline at end of file
+    requires java.management;
+    requires jdk.httpserver;
+    requires java.net.http;
+
+    // JMX reads the operation statistics MXBean interface through reflection
+    exports main.jmx;
+}
@@ -0,0 +1,211 @@
+package test;
+/**
+ * LockedMe.com - File Management Application
+ * Stress test for ConcurrentFileManager.
+ *
+ * Usage: java test.ConcurrentFileManagerStressTest [--names 20000] [--collisions 500] [--rounds 20]
+ *
+ * Disjoint: each thread adds and deletes its own names; throughput is
+ * reported for 1, 2, 4, ... threads up to twice the core count, and
+ * should scale with the cores available.
+ * Colliding: every thread adds, then deletes, the same names at once;
+ * each name must be created and deleted exactly once, with no failures.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import main.BatchResult;
+import main.ConcurrentFileManager;
+import main.FileOperationResult;
+
+public class ConcurrentFileManagerStressTest {
+
+    public static void main(String[] args) throws Exception {
+        int names = 20_000;
+        int collisions = 500;
+        int rounds = 20;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--names": names = Integer.parseInt(args[i + 1]); break;
+                case "--collisions": collisions = Integer.parseInt(args[i + 1]); break;
+                case "--rounds": rounds = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        File directory = Files.createTempDirectory("lockedme-stress-").toFile();
+        ConcurrentFileManager fileManager = new ConcurrentFileManager(directory.getAbsolutePath());
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("=== ConcurrentFileManager Stress Test ===");
+        System.out.println("Cores: " + cores + ", lock stripes: " + fileManager.getStripeCount());
+
+        try {
+            testLockStriping(fileManager);
+            testDisjointScaling(fileManager, names, cores);
+            testCollidingNames(fileManager, collisions, rounds, Math.max(4, cores * 2));
+            System.out.println("=== All Tests Passed ===");
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static void testLockStriping(ConcurrentFileManager fileManager) {
+        ConcurrentFileManager single = new ConcurrentFileManager(System.getProperty("java.io.tmpdir"), 1);
+        ConcurrentFileManager rounded = new ConcurrentFileManager(System.getProperty("java.io.tmpdir"), 100);
+        if (single.getStripeCount() != 1 || rounded.getStripeCount() != 128) {
+            throw new AssertionError("Stripe count should round up to a power of two");
+        }
+        if (Integer.bitCount(fileManager.getStripeCount()) != 1) {
+            throw new AssertionError("Default stripe count should be a power of two");
+        }
+        System.out.println("✓ Stripe counts round up to a power of two");
+    }
+
+    /**
+     * Every thread works on names no other thread touches, through the
+     * printing single-file API
+     */
+    private static void testDisjointScaling(ConcurrentFileManager fileManager, int names, int cores)
+            throws Exception {
+        PrintStream console = System.out;
+        double baseline = 0;
+
+        for (int threads = 1; threads <= Math.max(2, cores * 2); threads *= 2) {
+            int perThread = names / threads;
+            int threadCount = threads;
+            long[] failures = new long[threads];
+
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long elapsed;
+            try {
+                elapsed = runThreads(threads, thread -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String name = "t" + threadCount + "-" + thread + "-" + i + ".txt";
+                        if (!fileManager.addFile(name) || !fileManager.deleteFile(name)) {
+                            failures[thread]++;
+                        }
+                    }
+                });
+            } finally {
+                System.setOut(console);
+            }
+
+            for (long failed : failures) {
+                if (failed > 0) {
+                    throw new AssertionError("Disjoint add/delete failed " + failed + " times");
+                }
+            }
+
+            double opsPerSecond = 2.0 * perThread * threads / (elapsed / 1e9);
+            if (threads == 1) {
+                baseline = opsPerSecond;
+            }
+            System.out.printf("  %2d threads: %,10.0f ops/s  (%.2fx of 1 thread)%n",
+                              threads, opsPerSecond, opsPerSecond / baseline);
+        }
+
+        if (fileManager.getFileCount() != 0) {
+            throw new AssertionError("Disjoint run left " + fileManager.getFileCount() + " files behind");
+        }
+        System.out.println("✓ Disjoint names never fail; scaling is shown above");
+    }
+
+    /**
+     * All threads add, then delete, the same names, released together
+     */
+    private static void testCollidingNames(ConcurrentFileManager fileManager, int collisions, int rounds,
+                                           int threads) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < collisions; i++) {
+            names.add("shared-" + i + ".txt");
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            BatchResult[] adds = new BatchResult[threads];
+            runThreads(threads, thread -> adds[thread] = fileManager.addFiles(names));
+            checkExactlyOnce(adds, FileOperationResult.Status.CREATED, FileOperationResult.Status.ALREADY_EXISTS, collisions);
+
+            if (fileManager.getFileCount() != collisions) {
+                throw new AssertionError("Expected " + collisions + " files but found " + fileManager.getFileCount());
+            }
+
+            BatchResult[] deletes = new BatchResult[threads];
+            runThreads(threads, thread -> deletes[thread] = fileManager.deleteFiles(names));
+            checkExactlyOnce(deletes, FileOperationResult.Status.DELETED, FileOperationResult.Status.NOT_FOUND, collisions);
+        }
+
+        if (fileManager.getFileCount() != 0) {
+            throw new AssertionError("Colliding run left " + fileManager.getFileCount() + " files behind");
+        }
+        System.out.println("✓ " + threads + " threads x " + rounds + " rounds on " + collisions
+                           + " shared names: every name created and deleted exactly once");
+    }
+
+    private static void checkExactlyOnce(BatchResult[] results, FileOperationResult.Status winner,
+                                         FileOperationResult.Status loser, int expected) {
+        int wins = 0;
+        int losses = 0;
+        for (BatchResult result : results) {
+            wins += result.getCount(winner);
+            losses += result.getCount(loser);
+        }
+
+        int total = results.length * expected;
+        if (wins != expected || losses != total - expected) {
+            throw new AssertionError("Expected " + expected + " " + winner + " and " + (total - expected)
+                                     + " " + loser + " but got " + wins + " and " + losses
+                                     + " (the rest failed)");
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Runs the body on platform threads released at the same moment
+     * @return Elapsed nanoseconds from release until the last thread finished
+     */
+    private static long runThreads(int threads, ThreadBody body) throws Exception {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> running = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                running.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    body.run(thread);
+                    return null;
+                }));
+            }
+
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> result : running) {
+                result.get();
+            }
+            return System.nanoTime() - begin;
+        }
+    }
+}
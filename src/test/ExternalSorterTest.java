@@ -0,0 +1,145 @@
+package test;
+/**
+ * LockedMe.com - File Management Application
+ * External merge sort tests
+ *
+ * Run the large test under a constrained heap, e.g.:
+ *   java -ea -Xmx64m test.ExternalSorterTest 10000000
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import main.ExternalSorter;
+
+public class ExternalSorterTest {
+
+    private static final long DEFAULT_ENTRY_COUNT = 10_000_000L;
+    private static final long LARGE_SORT_BUDGET = 16L * 1024 * 1024;
+
+    /**
+     * Tests that a sort with forced spills matches an in-memory sort
+     */
+    public void testSpilledSortMatchesInMemorySort() throws Exception {
+        System.out.println("\n=== Testing Spilled Sort ===");
+
+        List<String> names = new ArrayList<>();
+        Iterator<String> generator = new NameGenerator(50_000, 42);
+        while (generator.hasNext()) {
+            names.add(generator.next());
+        }
+
+        // Tiny budget forces many runs and an intermediate merge pass
+        ExternalSorter sorter = new ExternalSorter(32 * 1024);
+        List<String> sorted = new ArrayList<>();
+        int runs;
+        try (ExternalSorter.SortedNames result = sorter.sort(names.iterator())) {
+            while (result.hasNext()) {
+                sorted.add(result.next());
+            }
+            runs = result.getRunsSpilled();
+            assert result.getEntryCount() == names.size() : "Entry count incorrect";
+        }
+
+        Collections.sort(names);
+        assert runs > 64 : "Expected more runs than the merge fan-in, got " + runs;
+        assert sorted.equals(names) : "External sort disagrees with Collections.sort";
+        System.out.println("✓ " + runs + " spilled runs merged into the correct order");
+
+        try (ExternalSorter.SortedNames result = sorter.sort(Collections.emptyIterator())) {
+            assert !result.hasNext() : "Empty input produced output";
+        }
+        System.out.println("✓ Empty input handled");
+
+        System.out.println("Spilled sort tests completed successfully!");
+    }
+
+    /**
+     * Sorts a large synthetic name set without holding it in memory
+     * @param entryCount Number of names to generate
+     */
+    public void testLargeSort(long entryCount) throws Exception {
+        System.out.println("\n=== Testing Large Sort (" + entryCount + " names, max heap " +
+                         (Runtime.getRuntime().maxMemory() / (1024 * 1024)) + " MB) ===");
+
+        long startTime = System.currentTimeMillis();
+        ExternalSorter sorter = new ExternalSorter(LARGE_SORT_BUDGET);
+
+        try (ExternalSorter.SortedNames result = sorter.sort(new NameGenerator(entryCount, 7))) {
+            String previous = null;
+            long count = 0;
+
+            while (result.hasNext()) {
+                String name = result.next();
+                assert previous == null || previous.compareTo(name) <= 0 :
+                    "Out of order: " + previous + " > " + name;
+                previous = name;
+                count++;
+            }
+
+            assert count == entryCount : "Expected " + entryCount + " names, got " + count;
+            System.out.println("✓ Sorted " + count + " names in " +
+                             (System.currentTimeMillis() - startTime) + "ms");
+            System.out.println("  Runs spilled: " + result.getRunsSpilled());
+            System.out.println("  Peak heap: " + (result.getPeakHeapBytes() / (1024 * 1024)) + " MB");
+        }
+
+        System.out.println("Large sort tests completed successfully!");
+    }
+
+    public static void main(String[] args) {
+        ClassLoader.getSystemClassLoader().setDefaultAssertionStatus(true);
+
+        long entryCount = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_ENTRY_COUNT;
+        ExternalSorterTest tester = new ExternalSorterTest();
+
+        try {
+            tester.testSpilledSortMatchesInMemorySort();
+            tester.testLargeSort(entryCount);
+            System.out.println("\n    ALL TESTS PASSED SUCCESSFULLY! ✓");
+        } catch (AssertionError e) {
+            System.err.println("    TEST FAILED: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("    UNEXPECTED ERROR: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Generates pseudo-random file names on the fly, so the input itself
+     * never has to fit in memory
+     */
+    private static class NameGenerator implements Iterator<String> {
+
+        private static final String[] EXTENSIONS = {".txt", ".log", ".csv", ".doc", ".dat"};
+
+        private final Random random;
+        private long remaining;
+
+        NameGenerator(long count, long seed) {
+            this.remaining = count;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public String next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return "file-" + Long.toHexString(random.nextLong()) +
+                   EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+        }
+    }
+}
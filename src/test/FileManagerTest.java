@@ -105,7 +105,7 @@ public class FileManagerTest {
     }
     
 
-    public void testSearchFile() {
+    public void testSearchFile() throws Exception {
         System.out.println("\n=== Testing File Search ===");
         
         fileManager.addFile("testSearch.txt");
@@ -118,6 +118,12 @@ public class FileManagerTest {
         assert !result2 : "Should not find non-existent file";
         System.out.println("✓ Correctly reported non-existent file as not found");
         
+        var details = fileManager.findFile("testSearch.txt");
+        assert details != null && details.regularFile() : "findFile did not return details";
+        assert details.name().equals("testSearch.txt") && details.size() == 0 : "Incorrect file details";
+        assert fileManager.findFile("nonExistentFile.txt") == null : "findFile found missing file";
+        System.out.println("✓ findFile returns reusable file details");
+        
         boolean result3 = fileManager.searchFile("");
         assert !result3 : "Should not search with empty filename";
         System.out.println("✓ Correctly rejected empty filename for search");
@@ -260,6 +266,757 @@ public class FileManagerTest {
         System.out.println("Pattern search tests completed successfully!");
     }
     
+    /**
+     * Tests paged listing with offsets and cursors
+     */
+    public void testPagedListing() {
+        System.out.println("\n=== Testing Paged Listing ===");
+        
+        tearDown();
+        setUp();
+        
+        String[] names = {"page-e.txt", "page-a.txt", "page-d.txt", "page-c.txt", "page-b.txt"};
+        for (String name : names) {
+            fileManager.addFile(name);
+        }
+        
+        var first = fileManager.listFiles(0, 2);
+        assert first.equals(java.util.List.of("page-a.txt", "page-b.txt")) : "First page incorrect: " + first;
+        var last = fileManager.listFiles(4, 2);
+        assert last.equals(java.util.List.of("page-e.txt")) : "Last page incorrect: " + last;
+        assert fileManager.listFiles(10, 2).isEmpty() : "Page past the end should be empty";
+        System.out.println("✓ Offset paging returns sorted pages");
+        
+        var next = fileManager.listFilesAfter("page-b.txt", 2);
+        assert next.equals(java.util.List.of("page-c.txt", "page-d.txt")) : "Cursor page incorrect: " + next;
+        System.out.println("✓ Cursor paging continues after the previous page");
+        
+        fileManager.enableIndexing();
+        assert fileManager.listFiles(1, 2).equals(fileManager.listFilesAfter("page-a.txt", 2)) : 
+            "Indexed paging disagrees";
+        fileManager.disableIndexing();
+        System.out.println("✓ Indexed paging matches directory paging");
+        
+        System.out.println("Paged listing tests completed successfully!");
+    }
+    
+    /**
+     * Tests that trigram-indexed pattern search agrees with a directory scan
+     */
+    public void testIndexedPatternSearch() {
+        System.out.println("\n=== Testing Indexed Pattern Search ===");
+        
+        tearDown();
+        setUp();
+        
+        String[] names = {"Report-2026.csv", "report-2025.csv", "summary.txt", "SUMMARY.log", 
+                          "a.txt", "notes", "rep"};
+        for (String name : names) {
+            fileManager.addFile(name);
+        }
+        
+        String[] patterns = {"report", "REPORT-2026", "mar", "2025.c", "txt", "re", "", "zzz", "ep"};
+        java.util.Map<String, java.util.List<String>> scanned = new java.util.HashMap<>();
+        for (String pattern : patterns) {
+            var result = new java.util.ArrayList<>(fileManager.searchFilesByPattern(pattern));
+            java.util.Collections.sort(result);
+            scanned.put(pattern, result);
+        }
+        
+        fileManager.enableIndexing();
+        for (String pattern : patterns) {
+            var indexed = fileManager.searchFilesByPattern(pattern);
+            assert indexed.equals(scanned.get(pattern)) : 
+                "Indexed search for '" + pattern + "' returned " + indexed + ", expected " + scanned.get(pattern);
+        }
+        System.out.println("✓ Indexed search matches directory scan");
+        
+        fileManager.deleteFile("Report-2026.csv");
+        assert fileManager.searchFilesByPattern("report").equals(java.util.List.of("report-2025.csv")) : 
+            "Deleted file still found by indexed search";
+        fileManager.addFile("REPORT-final.txt");
+        assert fileManager.searchFilesByPattern("report-f").size() == 1 : "Added file not found by indexed search";
+        System.out.println("✓ Trigram index follows addFile/deleteFile");
+        
+        fileManager.disableIndexing();
+        System.out.println("Indexed pattern search tests completed successfully!");
+    }
+    
+    /**
+     * Tests indexed mode, including files created behind the manager's back
+     */
+    public void testIndexedMode() throws Exception {
+        System.out.println("\n=== Testing Indexed Mode ===");
+        
+        tearDown();
+        setUp();
+        
+        fileManager.addFile("indexed1.txt");
+        assert fileManager.enableIndexing() : "Failed to build directory index";
+        assert fileManager.getFileCount() == 1 : "Index did not pick up existing file";
+        System.out.println("✓ Index built from initial scan");
+        
+        fileManager.addFile("indexed2.txt");
+        fileManager.deleteFile("indexed1.txt");
+        assert fileManager.getFileCount() == 1 : "Index not updated by add/delete";
+        assert fileManager.searchFilesByPattern("indexed2").size() == 1 : "Index search failed";
+        System.out.println("✓ Index updated by addFile/deleteFile");
+        
+        // Created outside the FileManager - must arrive through the watcher
+        new File(testDirectory, "external.txt").createNewFile();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (fileManager.getFileCount() != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assert fileManager.getFileCount() == 2 : "Watcher did not report external file";
+        System.out.println("✓ Index updated by directory watcher");
+        
+        fileManager.disableIndexing();
+        assert !fileManager.isIndexingEnabled() : "Indexing still enabled";
+        assert fileManager.getFileCount() == 2 : "Direct scan disagrees with index";
+        System.out.println("✓ Indexed mode disabled cleanly");
+        
+        System.out.println("Indexed mode tests completed successfully!");
+    }
+    
+    /**
+     * Tests glob and regex search modes
+     */
+    public void testSearchModes() {
+        System.out.println("\n=== Testing Glob and Regex Search ===");
+        
+        tearDown();
+        setUp();
+        
+        String[] names = {"app.log", "db.log", "report-2026-01.csv", "report-2026-12.csv", 
+                          "report-2026-1.csv", "notes.txt"};
+        for (String name : names) {
+            fileManager.addFile(name);
+        }
+        
+        var logs = fileManager.searchFiles("*.log", main.SearchMode.GLOB);
+        assert logs.size() == 2 : "Glob *.log found " + logs;
+        var reports = fileManager.searchFiles("report-2026-??.csv", main.SearchMode.GLOB);
+        assert reports.size() == 2 : "Glob report-2026-??.csv found " + reports;
+        System.out.println("✓ Glob search working correctly");
+        
+        var regex = fileManager.searchFiles("^report-\\d{4}-\\d\\.csv$", main.SearchMode.REGEX);
+        assert regex.equals(java.util.List.of("report-2026-1.csv")) : "Regex search found " + regex;
+        assert fileManager.searchFiles("log", main.SearchMode.REGEX).size() == 2 : "Regex find failed";
+        System.out.println("✓ Regex search working correctly");
+        
+        assert fileManager.searchFiles("NOTES", main.SearchMode.SUBSTRING).size() == 1 : 
+            "Substring mode should ignore case";
+        System.out.println("✓ Substring mode working correctly");
+        
+        try {
+            fileManager.searchFiles("report[", main.SearchMode.REGEX);
+            assert false : "Invalid regex accepted";
+        } catch (IllegalArgumentException e) {
+            System.out.println("✓ Invalid pattern rejected");
+        }
+        
+        System.out.println("Glob and regex search tests completed successfully!");
+    }
+    
+    /**
+     * Tests parallel recursive search with depth and result limits
+     */
+    public void testRecursiveSearch() throws Exception {
+        System.out.println("\n=== Testing Recursive Search ===");
+        
+        tearDown();
+        setUp();
+        
+        fileManager.addFile("top.log");
+        File nested = new File(testDirectory, "shard1" + File.separator + "deeper");
+        nested.mkdirs();
+        new File(testDirectory, "shard1" + File.separator + "mid.log").createNewFile();
+        new File(nested, "deep.log").createNewFile();
+        new File(nested, "deep.txt").createNewFile();
+        
+        try {
+            var all = fileManager.searchRecursive("*.log", main.SearchMode.GLOB, new main.TreeSearchOptions());
+            assert all.size() == 3 : "Recursive search found " + all;
+            assert all.contains("shard1" + File.separator + "deeper" + File.separator + "deep.log") : 
+                "Nested match missing: " + all;
+            System.out.println("✓ Recursive search finds files in subdirectories");
+            
+            var shallow = fileManager.searchRecursive("*.log", main.SearchMode.GLOB, 
+                new main.TreeSearchOptions().setMaxDepth(2));
+            assert shallow.size() == 2 : "Depth-limited search found " + shallow;
+            System.out.println("✓ Max depth respected");
+            
+            var limited = fileManager.searchRecursive("log", main.SearchMode.SUBSTRING, 
+                new main.TreeSearchOptions().setMaxResults(1).setParallelism(2));
+            assert limited.size() == 1 : "Result limit not respected: " + limited;
+            System.out.println("✓ Search stops at the result limit");
+        } finally {
+            new File(nested, "deep.log").delete();
+            new File(nested, "deep.txt").delete();
+            nested.delete();
+            new File(testDirectory, "shard1" + File.separator + "mid.log").delete();
+            new File(testDirectory, "shard1").delete();
+        }
+        
+        System.out.println("Recursive search tests completed successfully!");
+    }
+    
+    /**
+     * Tests bulk add/delete on virtual threads
+     */
+    public void testBatchOperations() {
+        System.out.println("\n=== Testing Batch Operations ===");
+        
+        tearDown();
+        setUp();
+        
+        java.util.List<String> names = new java.util.ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("batch" + i + ".txt");
+        }
+        names.add("batch0.txt"); // duplicate within the batch
+        
+        fileManager.setBatchConcurrency(16);
+        var added = fileManager.addFiles(names);
+        assert added.getCount(main.FileOperationResult.Status.CREATED) == 500 : "Batch add created " + added.getCounts();
+        assert added.getCount(main.FileOperationResult.Status.ALREADY_EXISTS) == 1 : "Duplicate not reported";
+        assert fileManager.getFileCount() == 500 : "File count wrong after batch add";
+        System.out.println("✓ Batch add created each file exactly once");
+        
+        var deleted = fileManager.deleteFiles(java.util.List.of("batch1.txt", "batch2.txt", "missing.txt"));
+        assert deleted.getOutcome(0) == main.FileOperationResult.Status.DELETED : "Batch delete failed";
+        assert deleted.getOutcome(2) == main.FileOperationResult.Status.NOT_FOUND : "Missing file not reported";
+        assert deleted.getFailedFileNames().equals(java.util.List.of("missing.txt")) : "Wrong failures reported";
+        System.out.println("✓ Batch delete reports per-file outcomes");
+        
+        System.out.println("Batch operation tests completed successfully!");
+    }
+    
+    /**
+     * Tests the result-object API: statuses, shared results and stackless failures
+     */
+    public void testResultApi() throws Exception {
+        System.out.println("\n=== Testing Result API ===");
+        
+        tearDown();
+        setUp();
+        
+        var created = fileManager.tryAddFile("result.txt");
+        assert created.getStatus() == main.FileOperationResult.Status.CREATED : "Add returned " + created;
+        var exists = fileManager.tryAddFile("result.txt");
+        assert exists.getStatus() == main.FileOperationResult.Status.ALREADY_EXISTS : "Duplicate returned " + exists;
+        assert fileManager.tryAddFile("  ").getStatus() == main.FileOperationResult.Status.INVALID_NAME
+            : "Empty name not rejected";
+        System.out.println("✓ tryAddFile reports each outcome");
+        
+        var found = fileManager.trySearchFile("result.txt");
+        assert found.isSuccess() && found.getFileDetails().name().equals("result.txt") : "Lookup returned " + found;
+        new File(testDirectory, "folder").mkdir();
+        assert fileManager.trySearchFile("folder").getStatus() == main.FileOperationResult.Status.NOT_A_FILE
+            : "Directory reported as a file";
+        assert fileManager.tryDeleteFile("folder").getStatus() == main.FileOperationResult.Status.NOT_A_FILE
+            : "Directory deleted as a file";
+        new File(testDirectory, "folder").delete();
+        System.out.println("✓ trySearchFile returns details and tells directories apart");
+        
+        var missA = fileManager.tryDeleteFile("missing-a.txt");
+        var missB = fileManager.trySearchFile("missing-b.txt");
+        assert missA == main.FileOperationResult.of(main.FileOperationResult.Status.NOT_FOUND) && missA == missB
+            : "Misses should share one preallocated result";
+        assert fileManager.getOperationStats().snapshot(main.OperationStats.Operation.DELETE_FILE).errors() == 0
+            : "A miss was counted as an error";
+        System.out.println("✓ Misses return a shared result and are not errors");
+        
+        try {
+            missA.orThrow("delete", "missing-a.txt");
+            assert false : "orThrow did not throw";
+        } catch (main.FileOperationException e) {
+            assert e.getStatus() == main.FileOperationResult.Status.NOT_FOUND : "Wrong status " + e.getStatus();
+            assert e.getStackTrace().length == 0 : "Exception captured a stack trace";
+        }
+        assert fileManager.tryDeleteFile("result.txt").orThrow("delete", "result.txt").isSuccess()
+            : "orThrow should pass a success through";
+        System.out.println("✓ orThrow throws a stackless FileOperationException");
+        
+        System.out.println("Result API tests completed successfully!");
+    }
+    
+    /**
+     * Tests the persistent index: save, restore, refresh and corrupt snapshots
+     */
+    public void testIndexSnapshot() throws Exception {
+        System.out.println("\n=== Testing Index Snapshot ===");
+        
+        tearDown();
+        setUp();
+        
+        for (int i = 0; i < 100; i++) {
+            new File(testDirectory, "snap" + i + ".txt").createNewFile();
+        }
+        java.nio.file.Path directory = new File(testDirectory).toPath();
+        java.nio.file.Path snapshot = main.IndexSnapshot.fileFor(directory);
+        java.nio.file.Files.createDirectories(snapshot.getParent());
+        // A directory changed a moment ago is never trusted, so age it
+        java.nio.file.Files.setLastModifiedTime(directory,
+            java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        
+        main.DirectoryIndex first = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        first.close();
+        assert !first.wasRestored() : "Restored without a snapshot";
+        assert java.nio.file.Files.exists(snapshot) : "Snapshot not saved after the first scan";
+        
+        main.DirectoryIndex second = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        second.close();
+        assert second.wasRestored() : "Unchanged directory was rescanned";
+        assert second.size() == 100 && second.getFileNames().first().equals("snap0.txt") : "Snapshot lost names";
+        assert second.search("snap42").size() == 1 : "Restored index cannot search";
+        System.out.println("✓ Unchanged directory is restored from the snapshot");
+        
+        new File(testDirectory, "snap-new.txt").createNewFile();
+        new File(testDirectory, "snap7.txt").delete();
+        main.DirectoryIndex third = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        third.close();
+        assert !third.wasRestored() : "Changed directory was restored";
+        assert third.size() == 100 && third.getFileNames().contains("snap-new.txt")
+            && !third.getFileNames().contains("snap7.txt") : "Refresh missed a change";
+        System.out.println("✓ Changed directory is refreshed");
+        
+        // A change whose directory mtime was set back is caught by the entry count
+        java.nio.file.attribute.FileTime aged = java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        java.nio.file.Files.setLastModifiedTime(directory, aged);
+        main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot).close();
+        main.DirectoryIndex settled = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        settled.close();
+        assert settled.wasRestored() : "Settled directory was rescanned";
+        new File(testDirectory, "snap-hidden.txt").createNewFile();
+        java.nio.file.Files.setLastModifiedTime(directory, aged);
+        main.DirectoryIndex hidden = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        hidden.close();
+        assert !hidden.wasRestored() && hidden.getFileNames().contains("snap-hidden.txt")
+            : "Snapshot used although the entry count changed";
+        new File(testDirectory, "snap-hidden.txt").delete();
+        System.out.println("✓ Snapshot with a matching mtime but a different entry count is refreshed");
+        
+        java.nio.file.Files.write(snapshot, new byte[] {1, 2, 3});
+        main.DirectoryIndex fourth = main.DirectoryIndex.open(directory, main.ListingBackend.WALK_FILE_TREE, snapshot);
+        fourth.close();
+        assert fourth.size() == 100 && !fourth.wasRestored() : "Corrupt snapshot was used";
+        System.out.println("✓ Corrupt snapshot falls back to a full scan");
+        
+        java.nio.file.Files.delete(snapshot);
+        java.nio.file.Files.delete(snapshot.getParent());
+        System.out.println("Index snapshot tests completed successfully!");
+    }
+    
+    /**
+     * Tests that lookups report the same access flags the operating system enforces
+     */
+    public void testFileDetailsPermissions() throws Exception {
+        System.out.println("\n=== Testing File Details Permissions ===");
+        
+        tearDown();
+        setUp();
+        
+        java.nio.file.Path path = new File(testDirectory, "modes.txt").toPath();
+        java.nio.file.Files.createFile(path);
+        try {
+            for (String mode : new String[] {"---------", "r--------", "rw-r-----", "rwx------", "r-xr-xr-x", "-w--w--w-"}) {
+                java.nio.file.Files.setPosixFilePermissions(path, java.nio.file.attribute.PosixFilePermissions.fromString(mode));
+                main.FileDetails details = fileManager.findFile("modes.txt");
+                assert details.readable() == java.nio.file.Files.isReadable(path) : "Readable wrong for " + mode;
+                assert details.writable() == java.nio.file.Files.isWritable(path) : "Writable wrong for " + mode;
+                assert details.executable() == java.nio.file.Files.isExecutable(path) : "Executable wrong for " + mode;
+            }
+        } catch (UnsupportedOperationException e) {
+            System.out.println("(POSIX permissions not supported here, skipped)");
+        } finally {
+            java.nio.file.Files.setPosixFilePermissions(path, java.nio.file.attribute.PosixFilePermissions.fromString("rw-r--r--"));
+        }
+        System.out.println("✓ Access flags match what the file system allows");
+        
+        System.out.println("File details permission tests completed successfully!");
+    }
+    
+    /**
+     * Tests duplicate detection through all three passes
+     */
+    public void testFindDuplicates() throws Exception {
+        System.out.println("\n=== Testing Duplicate Finder ===");
+        
+        tearDown();
+        setUp();
+        
+        byte[] large = new byte[20_000];
+        new java.util.Random(42).nextBytes(large);
+        java.nio.file.Path directory = new File(testDirectory).toPath();
+        java.nio.file.Files.write(directory.resolve("large-a.bin"), large);
+        java.nio.file.Files.write(directory.resolve("large-b.bin"), large);
+        large[10_000] ^= 1; // Same size and same ends, different middle
+        java.nio.file.Files.write(directory.resolve("large-c.bin"), large);
+        java.nio.file.Files.writeString(directory.resolve("small-a.txt"), "same small content");
+        java.nio.file.Files.writeString(directory.resolve("small-b.txt"), "same small content");
+        java.nio.file.Files.writeString(directory.resolve("small-c.txt"), "diff small content");
+        new File(testDirectory, "empty-a.txt").createNewFile();
+        new File(testDirectory, "empty-b.txt").createNewFile();
+        
+        main.DuplicateFinder.Report report = fileManager.findDuplicates();
+        assert report.groups().size() == 2 : "Expected two groups but got " + report.groups();
+        assert report.groups().get(0).fileNames().equals(java.util.List.of("large-a.bin", "large-b.bin"))
+            : "Wrong large group " + report.groups().get(0);
+        assert report.groups().get(1).fileNames().equals(java.util.List.of("small-a.txt", "small-b.txt"))
+            : "Wrong small group " + report.groups().get(1);
+        assert report.reclaimableBytes() == 20_000 + 18 : "Wrong reclaimable bytes " + report.reclaimableBytes();
+        System.out.println("✓ Identical files are grouped; same ends with a different middle are not");
+        
+        assert report.filesScanned() == 6 : "Empty files should be ignored";
+        assert report.filesFullyHashed() == 3 : "Only same-size large files need a full read";
+        System.out.println("✓ Only files that survive size and partial checks are fully read");
+        
+        System.out.println("Duplicate finder tests completed successfully!");
+    }
+    
+    /**
+     * Tests content search, including matches that straddle chunk boundaries
+     */
+    public void testContentSearch() throws Exception {
+        System.out.println("\n=== Testing Content Search ===");
+        
+        tearDown();
+        setUp();
+        
+        java.nio.file.Path directory = new File(testDirectory).toPath();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            text.append("line ").append(i).append(i % 5 == 0 ? " needle here" : " nothing").append("\r\n");
+        }
+        java.nio.file.Files.writeString(directory.resolve("haystack.txt"), text);
+        java.nio.file.Files.writeString(directory.resolve("other.txt"), "needleneedle");
+        java.nio.file.Files.writeString(directory.resolve("none.txt"), "Needle in the wrong case");
+        new File(testDirectory, "empty.txt").createNewFile();
+        
+        // 16 byte chunks split most matches across a boundary
+        java.util.List<main.ContentSearcher.Match> matches =
+            java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        main.ContentSearcher search = new main.ContentSearcher(directory, main.ListingBackend.WALK_FILE_TREE,
+                                                               "needle", 100, 4, 16);
+        assert search.run(matches::add) == 6 : "Expected six matches but got " + matches;
+        assert !search.isStopped() : "Search should have run to the end";
+        
+        matches.sort(java.util.Comparator.comparing(main.ContentSearcher.Match::fileName)
+                                         .thenComparingLong(main.ContentSearcher.Match::offset));
+        String content = text.toString();
+        int expected = content.indexOf("needle");
+        for (int i = 0; i < 4; i++) {
+            main.ContentSearcher.Match match = matches.get(i);
+            assert match.fileName().equals("haystack.txt") && match.offset() == expected
+                : "Wrong match " + match + ", expected offset " + expected;
+            assert match.line().equals("line " + (i * 5) + " needle here") : "Wrong line '" + match.line() + "'";
+            expected = content.indexOf("needle", expected + 1);
+        }
+        assert matches.get(4).offset() == 0 && matches.get(5).offset() == 6 : "Adjacent matches missed";
+        System.out.println("✓ Every match is found once, across chunk boundaries, with its line");
+        
+        matches.clear();
+        search = fileManager.newContentSearch("needle", 3);
+        assert search.run(matches::add) == 3 && matches.size() == 3 : "Match limit ignored: " + matches;
+        assert search.isStopped() : "Search should report stopping at the limit";
+        
+        search = fileManager.newContentSearch("needle", 100);
+        search.cancel();
+        assert search.run(match -> { throw new AssertionError("Cancelled search reported " + match); }) == 0;
+        assert fileManager.newContentSearch("missing", 10).run(match -> { }) == 0 : "Phantom match";
+        System.out.println("✓ Searches stop at the match limit or when cancelled");
+        
+        System.out.println("Content search tests completed successfully!");
+    }
+    
+    /**
+     * Tests the disk usage report and its per-directory cache
+     */
+    public void testDiskUsage() throws Exception {
+        System.out.println("\n=== Testing Disk Usage ===");
+        
+        tearDown();
+        setUp();
+        
+        java.nio.file.Path directory = new File(testDirectory).toPath();
+        java.nio.file.Path logs = java.nio.file.Files.createDirectories(directory.resolve("logs/old"));
+        java.nio.file.Path data = java.nio.file.Files.createDirectories(directory.resolve("data"));
+        java.nio.file.Path hidden = java.nio.file.Files.createDirectories(directory.resolve(".lockedme"));
+        java.nio.file.Files.write(directory.resolve("top.txt"), new byte[10]);
+        java.nio.file.Files.write(logs.getParent().resolve("a.log"), new byte[100]);
+        java.nio.file.Files.write(logs.resolve("b.log"), new byte[300]);
+        java.nio.file.Files.write(logs.resolve("c.log"), new byte[200]);
+        for (int i = 0; i < 8; i++) {
+            java.nio.file.Files.write(data.resolve("part-" + i), new byte[1000 + i]);
+        }
+        java.nio.file.Files.write(hidden.resolve("ignored"), new byte[5000]);
+        
+        try {
+            // Small enough that the top files have to be chosen from several directories
+            main.DiskUsage diskUsage = new main.DiskUsage(directory, 3, 4);
+            main.DiskUsage.Report report = diskUsage.report();
+            assert report.total().totalBytes() == 10 + 600 + 8028 : "Wrong total " + report.total();
+            assert report.total().fileCount() == 12 : "Data directory should not be counted";
+            assert report.subdirectories().size() == 2 : "Expected two subdirectories " + report.subdirectories();
+            
+            main.DiskUsage.Usage first = report.subdirectories().get(0);
+            assert first.path().equals("data") && first.fileCount() == 8 : "Largest directory first " + first;
+            assert first.largestFiles().equals(java.util.List.of(
+                new main.DiskUsage.LargeFile("data" + File.separator + "part-7", 1007),
+                new main.DiskUsage.LargeFile("data" + File.separator + "part-6", 1006),
+                new main.DiskUsage.LargeFile("data" + File.separator + "part-5", 1005))) : "Wrong largest " + first;
+            
+            main.DiskUsage.Usage second = report.subdirectories().get(1);
+            assert second.totalBytes() == 600 && second.fileCount() == 3 : "Nested files not counted " + second;
+            assert second.largestFiles().get(0).path().equals("logs" + File.separator + "old" + File.separator + "b.log")
+                : "Nested largest file missing " + second;
+            System.out.println("✓ Totals, counts and largest files are reported per subdirectory");
+            
+            // Let the mtimes settle so the directories are trusted from the cache
+            Thread.sleep(2100);
+            report = diskUsage.report();
+            assert report.directoriesWalked() == 4 : "Expected four directories " + report.directoriesWalked();
+            report = diskUsage.report();
+            assert report.directoriesListed() == 0 : "Unchanged directories were listed again";
+            
+            java.nio.file.Files.write(logs.resolve("d.log"), new byte[50]);
+            report = diskUsage.report();
+            assert report.directoriesListed() == 1 : "Only the changed directory should be listed";
+            assert report.total().totalBytes() == 10 + 650 + 8028 : "New file not counted";
+            System.out.println("✓ Repeat reports only list directories that changed");
+            
+            deleteRecursively(directory.resolve("logs"));
+            deleteRecursively(data);
+            report = diskUsage.report();
+            assert report.subdirectories().isEmpty() && report.total().totalBytes() == 10 : "Deleted directories counted";
+            System.out.println("✓ Deleted directories drop out of the report");
+        } finally {
+            deleteRecursively(directory.resolve("logs"));
+            deleteRecursively(data);
+            deleteRecursively(hidden);
+        }
+        
+        System.out.println("Disk usage tests completed successfully!");
+    }
+    
+    private static void deleteRecursively(java.nio.file.Path path) throws java.io.IOException {
+        if (!java.nio.file.Files.exists(path)) {
+            return;
+        }
+        try (java.util.stream.Stream<java.nio.file.Path> walk = java.nio.file.Files.walk(path)) {
+            for (java.nio.file.Path entry : walk.sorted(java.util.Comparator.reverseOrder()).toList()) {
+                java.nio.file.Files.delete(entry);
+            }
+        }
+    }
+    
+    /**
+     * Tests trash mode: delete, restore, purge and empty
+     */
+    public void testTrash() throws Exception {
+        System.out.println("\n=== Testing Trash Mode ===");
+        
+        tearDown();
+        setUp();
+        
+        assert !fileManager.isTrashEnabled() : "Deletes should be permanent by default";
+        assert fileManager.enableTrash(java.time.Duration.ofDays(1), 0) : "Trash mode not enabled";
+        assert fileManager.getTrashRetention().equals(java.time.Duration.ofDays(1)) : "Retention not applied";
+        
+        java.nio.file.Files.writeString(new File(testDirectory, "keep.txt").toPath(), "first");
+        assert fileManager.deleteFile("keep.txt") : "Trash delete failed";
+        assert !new File(testDirectory, "keep.txt").exists() : "File still in directory";
+        assert fileManager.getFileCount() == 0 : "Trash directory counted as a file";
+        
+        java.nio.file.Files.writeString(new File(testDirectory, "keep.txt").toPath(), "second!");
+        var batch = fileManager.deleteFiles(java.util.List.of("keep.txt"));
+        assert batch.getOutcome(0) == main.FileOperationResult.Status.DELETED : "Batch delete did not use the trash";
+        
+        var entries = fileManager.listTrash();
+        assert entries.size() == 2 : "Expected two trashed copies, got " + entries.size();
+        assert entries.get(0).size() == 7 : "Newest copy should be listed first";
+        System.out.println("✓ Deletes move files into the trash");
+        
+        assert fileManager.restoreFile("keep.txt") : "Restore failed";
+        String restored = java.nio.file.Files.readString(new File(testDirectory, "keep.txt").toPath());
+        assert restored.equals("second!") : "Restored the wrong copy: " + restored;
+        assert !fileManager.restoreFile("keep.txt") : "Restore over an existing file should fail";
+        assert !fileManager.restoreFile("never-deleted.txt") : "Restored a file that was never deleted";
+        System.out.println("✓ Restore brings back the newest copy");
+        
+        // The longest name the validator allows must still fit once trashed
+        String longName = "x".repeat(250) + ".txt";
+        java.nio.file.Files.writeString(new File(testDirectory, longName).toPath(), "long");
+        main.FileOperationResult longDelete = fileManager.tryDeleteFile(longName);
+        assert longDelete.getStatus() == main.FileOperationResult.Status.DELETED && longDelete.getDetail() == null
+            : "Long name not trashed: " + longDelete;
+        assert fileManager.listTrash().get(0).fileName().equals(longName) : "Trash lost the long name";
+        assert fileManager.restoreFile(longName) : "Long name not restored";
+        assert fileManager.tryDeleteFile(longName).isSuccess() : "Long name not deleted again";
+        System.out.println("✓ Names up to 255 characters can be trashed and restored");
+        
+        main.Trash trash = new main.Trash(new File(testDirectory).toPath());
+        assert trash.purgeExpired() == 0 : "Purged a file inside the retention window";
+        fileManager.enableTrash(java.time.Duration.ZERO, 0);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!fileManager.listTrash().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assert fileManager.listTrash().isEmpty() : "Background purger did not purge expired files";
+        System.out.println("✓ Background purger removes expired files");
+        
+        fileManager.enableTrash(java.time.Duration.ofDays(1), 0);
+        fileManager.deleteFile("keep.txt");
+        assert fileManager.emptyTrash() == 1 : "Empty trash should delete one file";
+        assert fileManager.listTrash().isEmpty() : "Trash not empty";
+        System.out.println("✓ Empty trash deletes everything");
+        
+        fileManager.disableTrash();
+        fileManager.addFile("gone.txt");
+        fileManager.deleteFile("gone.txt");
+        assert fileManager.listTrash().isEmpty() : "Permanent delete went to the trash";
+        
+        java.nio.file.Files.delete(trash.getTrashDirectory());
+        java.nio.file.Files.delete(trash.getTrashDirectory().getParent());
+        System.out.println("Trash mode tests completed successfully!");
+    }
+    
+    /**
+     * Tests the per-operation counters, latency percentiles and JMX beans
+     */
+    public void testOperationStats() throws Exception {
+        System.out.println("\n=== Testing Operation Statistics ===");
+        
+        tearDown();
+        setUp();
+        
+        main.OperationStats stats = fileManager.getOperationStats();
+        fileManager.addFile("stats1.txt");
+        fileManager.addFile("stats1.txt");
+        fileManager.deleteFile("stats1.txt");
+        fileManager.findFile("stats1.txt");
+        fileManager.searchFilesByPattern("stats");
+        fileManager.searchFiles("*.txt", main.SearchMode.GLOB);
+        try {
+            fileManager.searchFiles("[", main.SearchMode.REGEX);
+        } catch (IllegalArgumentException e) {
+            // Counted as an error
+        }
+        fileManager.listFilesAfter(null, 10);
+        
+        var add = stats.snapshot(main.OperationStats.Operation.ADD_FILE);
+        var search = stats.snapshot(main.OperationStats.Operation.PATTERN_SEARCH);
+        assert add.count() == 2 : "Expected 2 adds, got " + add.count();
+        assert stats.snapshot(main.OperationStats.Operation.DELETE_FILE).count() == 1 : "Delete not counted";
+        assert stats.snapshot(main.OperationStats.Operation.SEARCH_FILE).count() == 1 : "Lookup not counted";
+        assert search.count() == 3 && search.errors() == 1 : "Pattern searches miscounted: " + search;
+        assert stats.getErrorCounts(main.OperationStats.Operation.PATTERN_SEARCH).containsKey("PatternSyntaxException")
+            : "Error type not recorded";
+        assert add.p50Nanos() > 0 && add.p50Nanos() <= add.maxNanos() : "Median outside the recorded range";
+        System.out.println("✓ Calls, errors and error types are counted per operation");
+        
+        main.OperationStats synthetic = new main.OperationStats();
+        for (int i = 1; i <= 1000; i++) {
+            synthetic.recordLatency(main.OperationStats.Operation.LIST_FILES, i * 1000L);
+        }
+        var listing = synthetic.snapshot(main.OperationStats.Operation.LIST_FILES);
+        assert Math.abs(listing.p50Nanos() - 500_000) < 500_000 * 0.15 : "p50 off: " + listing.p50Nanos();
+        assert Math.abs(listing.p99Nanos() - 990_000) < 990_000 * 0.15 : "p99 off: " + listing.p99Nanos();
+        System.out.println("✓ Percentiles are within a bucket of the true value");
+        
+        stats.registerMBeans("FileManagerTest");
+        try {
+            var server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+            var name = new javax.management.ObjectName(
+                "lockedme:type=FileManager,scope=\"FileManagerTest\",operation=ADD_FILE");
+            assert ((Long) server.getAttribute(name, "Count")) == 2 : "JMX count wrong";
+        } finally {
+            stats.unregisterMBeans();
+        }
+        System.out.println("✓ Statistics are readable over JMX");
+        
+        System.out.println("Operation statistics tests completed successfully!");
+    }
+    
+    /**
+     * Tests the non-interactive script mode
+     */
+    public void testScriptMode() throws Exception {
+        System.out.println("\n=== Testing Script Mode ===");
+        
+        tearDown();
+        setUp();
+        
+        String script = String.join("\n",
+            "# comments and blank lines are skipped",
+            "",
+            "add one.txt",
+            "add one.txt",
+            "add two.txt",
+            "search one.txt",
+            "find --glob *.txt",
+            "delete two.txt",
+            "search two.txt",
+            "list",
+            "rename one.txt");
+        
+        java.io.StringWriter output = new java.io.StringWriter();
+        main.ScriptRunner runner = new main.ScriptRunner(fileManager, inputValidator, output);
+        long failures = runner.run(new java.io.BufferedReader(new java.io.StringReader(script)));
+        String[] lines = output.toString().split("\n");
+        
+        assert runner.getCommandCount() == 9 : "Comment or blank line counted as a command";
+        assert failures == 2 : "Expected the duplicate add and unknown command to fail, got " + failures;
+        assert lines[0].equals("CREATED\tadd\tone.txt") : "Unexpected add result: " + lines[0];
+        assert lines[1].equals("ALREADY_EXISTS\tadd\tone.txt") : "Duplicate add not reported";
+        assert lines[3].startsWith("FOUND\tsearch\tone.txt\t0\t") : "Search result missing size";
+        assert lines[4].equals("one.txt") && lines[5].equals("two.txt") : "Find names missing";
+        assert lines[6].equals("OK\tfind\t*.txt\t2") : "Find count wrong: " + lines[6];
+        assert lines[8].equals("NOT_FOUND\tsearch\ttwo.txt") : "Deleted file still found";
+        assert lines[9].equals("one.txt") && lines[10].equals("OK\tlist\t\t1") : "List output wrong";
+        assert lines[11].startsWith("ERROR\trename") : "Unknown command not reported";
+        System.out.println("✓ Script commands produce one result line each, after any names");
+        
+        System.out.println("Script mode tests completed successfully!");
+    }
+    
+    /**
+     * Tests JSON Lines and NUL-separated record output
+     */
+    public void testRecordOutput() throws Exception {
+        System.out.println("\n=== Testing Record Output ===");
+        
+        tearDown();
+        setUp();
+        java.nio.file.Files.write(new File(testDirectory, "b.txt").toPath(), new byte[42]);
+        java.nio.file.Files.createFile(new File(testDirectory, "a\"quoted\".txt").toPath());
+        
+        java.io.StringWriter json = new java.io.StringWriter();
+        main.RecordWriter jsonWriter = new main.RecordWriter(json, main.OutputFormat.JSON_LINES);
+        long written = fileManager.writeFileListing(jsonWriter);
+        jsonWriter.flush();
+        String[] lines = json.toString().split("\n");
+        
+        assert written == 2 && lines.length == 2 : "Expected one JSON line per file";
+        assert lines[0].startsWith("{\"name\":\"a\\\"quoted\\\".txt\",\"size\":0,\"mtime\":") : "Bad JSON record: " + lines[0];
+        assert lines[1].startsWith("{\"name\":\"b.txt\",\"size\":42,") : "Size missing: " + lines[1];
+        assert lines[1].matches(".*\"permissions\":\"r[w-][x-]\"}") : "Permissions missing: " + lines[1];
+        System.out.println("✓ JSON Lines listing is sorted, escaped and complete");
+        
+        java.io.StringWriter nul = new java.io.StringWriter();
+        main.RecordWriter nulWriter = new main.RecordWriter(nul, main.OutputFormat.NUL);
+        fileManager.writeSearchResults("b.", main.SearchMode.SUBSTRING, nulWriter);
+        nulWriter.flush();
+        String[] fields = nul.toString().split("\0");
+        
+        assert fields.length == 4 && fields[0].equals("b.txt") && fields[1].equals("42") : "Bad NUL record";
+        System.out.println("✓ NUL records carry four fields per file");
+        
+        System.out.println("Record output tests completed successfully!");
+    }
+    
     /**
      * Tests edge cases and error handling
      */
@@ -310,6 +1067,22 @@ public class FileManagerTest {
             testDirectoryEmptyCheck();
             testSearchFilesByPattern();
             testEdgeCases();
+            testIndexedMode();
+            testIndexSnapshot();
+            testPagedListing();
+            testIndexedPatternSearch();
+            testSearchModes();
+            testRecursiveSearch();
+            testBatchOperations();
+            testTrash();
+            testOperationStats();
+            testResultApi();
+            testFileDetailsPermissions();
+            testFindDuplicates();
+            testContentSearch();
+            testDiskUsage();
+            testScriptMode();
+            testRecordOutput();
             
             System.out.println("\n========================================");
             System.out.println("    ALL TESTS PASSED SUCCESSFULLY! ✓");
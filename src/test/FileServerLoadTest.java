@@ -0,0 +1,239 @@
+package test;
+/**
+ * LockedMe.com - File Management Application
+ * Checks the HTTP API end to end, then load tests it over loopback with
+ * many concurrent clients sharing keep-alive connections.
+ *
+ * Usage: java test.FileServerLoadTest [--clients 64] [--requests 200] [--files 1000]
+ *
+ * Each client adds, looks up, searches and deletes its own files, and
+ * lists the directory now and then. Every response code is checked.
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import main.ConcurrentFileManager;
+import main.FileManager;
+import main.FileServer;
+import main.InputValidator;
+
+public class FileServerLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int clients = 64;
+        int requestsPerClient = 200;
+        int fileCount = 1000;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--clients": clients = Integer.parseInt(args[i + 1]); break;
+                case "--requests": requestsPerClient = Integer.parseInt(args[i + 1]); break;
+                case "--files": fileCount = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        File directory = Files.createTempDirectory("lockedme-server-").toFile();
+        for (int i = 0; i < fileCount; i++) {
+            new File(directory, "seed-" + i + ".txt").createNewFile();
+        }
+
+        FileManager fileManager = new ConcurrentFileManager(directory.getAbsolutePath());
+        fileManager.enableIndexing();
+        FileServer server = new FileServer(fileManager, new InputValidator(), 0);
+        server.start();
+
+        try {
+            String base = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            System.out.println("=== FileServer Load Test ===");
+            testEndpoints(client, base, fileCount);
+            testKeepAlive(server.getPort());
+            runLoad(client, base, clients, requestsPerClient);
+            System.out.println("=== All Tests Passed ===");
+        } finally {
+            server.stop(0);
+            fileManager.disableIndexing();
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static void testEndpoints(HttpClient client, String base, int fileCount) throws Exception {
+        expect(client, "PUT", base + "/files/report.txt", 201, "\"CREATED\"");
+        expect(client, "PUT", base + "/files/report.txt", 409, "\"ALREADY_EXISTS\"");
+        expect(client, "GET", base + "/files/report.txt", 200, "\"name\":\"report.txt\"");
+        expect(client, "PUT", base + "/files/bad%3Cname%3E.txt", 400, "UNSAFE_CHARACTER@3");
+        expect(client, "GET", base + "/search?pattern=report", 200, "\"report.txt\"");
+        expect(client, "GET", base + "/search?pattern=*.txt&mode=glob", 200, "\"report.txt\"");
+        expect(client, "GET", base + "/search?pattern=%5B&mode=regex", 400, "\"ERROR\"");
+        expect(client, "GET", base + "/search", 400, "pattern is required");
+        expect(client, "GET", base + "/files/report.txt?format=text", 200, "report.txt");
+        System.out.println("✓ Add, lookup, validation and search endpoints work");
+
+        String listing = expect(client, "GET", base + "/files", 200, "\"seed-0.txt\"");
+        long records = listing.lines().count();
+        if (records != fileCount + 1) {
+            throw new AssertionError("Expected " + (fileCount + 1) + " listing records but got " + records);
+        }
+        System.out.println("✓ Listing returns every file (" + records + " records)");
+
+        expect(client, "PUT", base + "/files/eport.txt", 201, "\"CREATED\"");
+        expect(client, "DELETE", base + "/filesreport.txt", 404, "\"ERROR\"");
+        expect(client, "GET", base + "/searchx?pattern=report", 404, "\"ERROR\"");
+        expect(client, "DELETE", base + "/files/eport.txt", 200, "\"DELETED\"");
+        expect(client, "DELETE", base + "/files/report.txt", 200, "\"DELETED\"");
+        expect(client, "DELETE", base + "/files/report.txt", 404, "\"NOT_FOUND\"");
+        expect(client, "GET", base + "/files/report.txt", 404, "\"NOT_FOUND\"");
+        expect(client, "POST", base + "/files", 405, "\"ERROR\"");
+        System.out.println("✓ Delete and error responses work");
+    }
+
+    /**
+     * Sends two requests on one socket; both are answered only if the
+     * server keeps the connection open
+     */
+    private static void testKeepAlive(int port) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+
+            for (int i = 0; i < 2; i++) {
+                out.write(("GET /files/seed-" + i + ".txt HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                          .getBytes(StandardCharsets.ISO_8859_1));
+                out.flush();
+
+                String statusLine = in.readLine();
+                if (statusLine == null || !statusLine.contains(" 200 ")) {
+                    throw new AssertionError("Request " + (i + 1) + " on one connection got: " + statusLine);
+                }
+                int length = -1;
+                for (String header = in.readLine(); !header.isEmpty(); header = in.readLine()) {
+                    if (header.toLowerCase().startsWith("content-length:")) {
+                        length = Integer.parseInt(header.substring(15).trim());
+                    }
+                }
+                if (length < 0) {
+                    throw new AssertionError("File lookup should send a Content-Length");
+                }
+                in.skip(length);
+            }
+        }
+        System.out.println("✓ Connection is kept alive between requests");
+    }
+
+    private static void runLoad(HttpClient client, String base, int clients, int requestsPerClient)
+            throws Exception {
+        long[][] latencies = new long[clients][];
+        AtomicLong failures = new AtomicLong();
+        List<Future<?>> running = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int clientId = c;
+                running.add(executor.submit(() -> {
+                    latencies[clientId] = runClient(client, base, clientId, requestsPerClient, failures);
+                    return null;
+                }));
+            }
+            for (Future<?> result : running) {
+                result.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        if (failures.get() > 0) {
+            throw new AssertionError(failures.get() + " of " + all.length + " requests got an unexpected status");
+        }
+
+        System.out.printf("✓ %d requests from %d clients in %.2f s: %.0f requests/s%n",
+                          all.length, clients, elapsed / 1e9, all.length / (elapsed / 1e9));
+        System.out.printf("  latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                          percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6);
+    }
+
+    /**
+     * Cycles add, lookup, search, delete, with a full listing every 50 requests
+     */
+    private static long[] runClient(HttpClient client, String base, int clientId, int requests,
+                                    AtomicLong failures) throws Exception {
+        long[] latencies = new long[requests];
+
+        for (int i = 0; i < requests; i++) {
+            String name = "client-" + clientId + "-" + (i / 4) + ".txt";
+            String method;
+            String uri;
+            int expected;
+
+            if (i % 50 == 49) {
+                method = "GET";
+                uri = base + "/files";
+                expected = 200;
+            } else {
+                switch (i % 4) {
+                    case 0: method = "PUT"; uri = base + "/files/" + name; expected = 201; break;
+                    case 1: method = "GET"; uri = base + "/files/" + name; expected = 200; break;
+                    case 2: method = "GET"; uri = base + "/search?pattern=client-" + clientId + "-"; expected = 200; break;
+                    default: method = "DELETE"; uri = base + "/files/" + name; expected = 200; break;
+                }
+            }
+
+            long begin = System.nanoTime();
+            HttpResponse<String> response = client.send(request(method, uri), HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - begin;
+
+            if (response.statusCode() != expected) {
+                failures.incrementAndGet();
+            }
+        }
+        return latencies;
+    }
+
+    private static String expect(HttpClient client, String method, String uri, int status, String fragment)
+            throws Exception {
+        HttpResponse<String> response = client.send(request(method, uri), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != status || !response.body().contains(fragment)) {
+            throw new AssertionError(method + " " + uri + " expected " + status + " with " + fragment
+                                     + " but got " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static HttpRequest request(String method, String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+}
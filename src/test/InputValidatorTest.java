@@ -0,0 +1,341 @@
+package test;
+/**
+ * LockedMe.com - File Management Application
+ * Property test for InputValidator.validateFileName: random and
+ * hand-picked names must get the same verdict as the original
+ * regex-based rules, which are kept here as the reference.
+ *
+ * Usage: java test.InputValidatorTest [cases] [seed]
+ *
+ * @author Chirag
+ * @version 1.01
+ * @company Company LockedMe.com pvt Ltd..
+ */
+import java.util.Random;
+import java.util.regex.Pattern;
+import main.InputValidator;
+import main.ValidationResult;
+
+public class InputValidatorTest {
+
+    // The original validation rules, unchanged
+    private static final Pattern VALID_FILENAME_PATTERN =
+        Pattern.compile("^[a-zA-Z0-9][a-zA-Z0-9._\\-\\s]*[a-zA-Z0-9]$|^[a-zA-Z0-9]$");
+
+    private static final Pattern UNSAFE_FILENAME_PATTERN =
+        Pattern.compile(".*[<>:\"/\\\\|\\?\\*].*");
+
+    private static final String[] RESERVED_NAMES = {
+        "CON", "PRN", "AUX", "NUL",
+        "COM1", "COM2", "COM3", "COM4", "COM5", "COM6", "COM7", "COM8", "COM9",
+        "LPT1", "LPT2", "LPT3", "LPT4", "LPT5", "LPT6", "LPT7", "LPT8", "LPT9"
+    };
+
+    // Characters that sit on or near a rule boundary
+    private static final char[] ALPHABET = (
+        "aZ09cConNlLpPtTxXuUmM" +       // letters of the reserved names, both cases
+        "._-" +                          // allowed punctuation
+        " \t\n\r\u000B\f\u0000" +        // whitespace, line terminators and control
+        "<>:\"/\\|?*" +                  // unsafe characters
+        "#+,~" +                         // neither allowed nor unsafe
+        "\u00e9\u0131\u212a\u0085\u2028\u2029\u00a0"  // non-ASCII, incl. Unicode line terminators
+    ).toCharArray();
+
+    private static final String[] EXTENSIONS = { "", ".", ".txt", ".tar.gz", ". ", "..x" };
+
+    private final InputValidator validator = new InputValidator();
+
+    /**
+     * The original isValidFileName, returning which rule failed
+     */
+    static ValidationResult legacyValidate(String fileName) {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return ValidationResult.EMPTY;
+        }
+
+        String trimmedName = fileName.trim();
+
+        if (trimmedName.length() > 255) {
+            return ValidationResult.TOO_LONG;
+        }
+
+        if (UNSAFE_FILENAME_PATTERN.matcher(trimmedName).matches()) {
+            return ValidationResult.UNSAFE_CHARACTER;
+        }
+
+        String nameWithoutExtension = trimmedName.contains(".") ?
+            trimmedName.substring(0, trimmedName.lastIndexOf(".")) : trimmedName;
+
+        for (String reserved : RESERVED_NAMES) {
+            if (reserved.equalsIgnoreCase(nameWithoutExtension)) {
+                return ValidationResult.RESERVED_NAME;
+            }
+        }
+
+        if (!VALID_FILENAME_PATTERN.matcher(trimmedName).matches()) {
+            return ValidationResult.INVALID_FORMAT;
+        }
+
+        if (trimmedName.startsWith(" ") || trimmedName.endsWith(" ") ||
+            trimmedName.startsWith(".") || trimmedName.endsWith(".")) {
+            return ValidationResult.INVALID_FORMAT;
+        }
+
+        return ValidationResult.VALID;
+    }
+
+    /**
+     * The original sanitizeFileName
+     */
+    static String legacySanitize(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+
+        String sanitized = fileName.trim();
+        sanitized = sanitized.replaceAll("[<>:\"/\\\\|\\?\\*]", "_");
+        sanitized = sanitized.replaceAll("^[.\\s]+|[.\\s]+$", "");
+
+        if (sanitized.length() > 255) {
+            sanitized = sanitized.substring(0, 255);
+        }
+        if (sanitized.isEmpty()) {
+            sanitized = "unnamed_file";
+        }
+        return sanitized;
+    }
+
+    /**
+     * Tests names chosen to sit on each rule boundary
+     */
+    public void testKnownNames() {
+        System.out.println("\n=== Testing Known Names ===");
+
+        String[] names = {
+            null, "", "   ", "a", "a.txt", " a.txt ", "CON", "con.txt", "Com1.log", "LPT9",
+            "COM0", "CONS", "CON.tar.gz", "CON.", ".CON", "aux ", "a<b", "a\n<b", "a <b",
+            "a\r\nb", "-a", "a-", "a..b", "a b", "a\tb", "é", "aéb", "x".repeat(255),
+            "x".repeat(256), " " + "x".repeat(255) + " ", "a\u0000b", "\u0000a"
+        };
+
+        for (String name : names) {
+            check(name);
+        }
+        System.out.println("✓ " + names.length + " boundary names match the original rules");
+    }
+
+    /**
+     * Tests random names built from boundary characters
+     */
+    public void testRandomNames(int cases, long seed) {
+        System.out.println("\n=== Testing " + cases + " Random Names (seed " + seed + ") ===");
+
+        Random random = new Random(seed);
+        StringBuilder name = new StringBuilder();
+
+        for (int i = 0; i < cases; i++) {
+            name.setLength(0);
+
+            if (random.nextInt(4) == 0) {
+                // A reserved name in random case, with an extension and padding
+                String reserved = RESERVED_NAMES[random.nextInt(RESERVED_NAMES.length)];
+                for (char c : reserved.toCharArray()) {
+                    name.append(random.nextBoolean() ? Character.toLowerCase(c) : c);
+                }
+                name.append(EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+                if (random.nextBoolean()) {
+                    name.insert(0, ' ').append(' ');
+                }
+            } else {
+                int length = random.nextInt(50) == 0 ? 250 + random.nextInt(12) : random.nextInt(10);
+                for (int j = 0; j < length; j++) {
+                    // Mostly valid characters, so later rules get exercised too
+                    name.append(random.nextInt(3) == 0
+                        ? ALPHABET[random.nextInt(ALPHABET.length)]
+                        : ALPHABET[random.nextInt(24)]);
+                }
+            }
+
+            check(name.toString());
+        }
+        System.out.println("✓ All random names match the original rules");
+    }
+
+    /**
+     * Tests the offending positions reported for each rule
+     */
+    public void testViolationPositions() {
+        System.out.println("\n=== Testing Violation Positions ===");
+
+        checkPosition("report.txt", -1);
+        checkPosition("   ", -1);
+        checkPosition("  ab<c>.txt", 4);
+        checkPosition(" con.txt", 1);
+        checkPosition("ab#c", 2);
+        checkPosition("-abc", 0);
+        checkPosition("abc.", 3);
+        checkPosition(" " + "x".repeat(300), 256);
+        System.out.println("✓ Positions point at the offending character");
+    }
+
+    /**
+     * Tests bulk validation against one-at-a-time validation
+     */
+    public void testBulkValidation(long seed) {
+        System.out.println("\n=== Testing Bulk Validation ===");
+
+        Random random = new Random(seed);
+        java.util.List<String> names = new java.util.ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                name.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            names.add(name.toString());
+        }
+
+        main.BulkValidationResult fromList = validator.validateFileNames(names);
+        main.BulkValidationResult fromStream = validator.validateFileNames(names.stream());
+        int total = 0;
+
+        for (int i = 0; i < names.size(); i++) {
+            ValidationResult expected = validator.validateFileName(names.get(i));
+            if (fromList.getResult(i) != expected || fromStream.getResult(i) != expected
+                    || fromList.getPosition(i) != validator.findViolation(names.get(i))) {
+                throw new AssertionError("Bulk result differs for " + describe(names.get(i)));
+            }
+        }
+        for (int count : fromList.getCounts().values()) {
+            total += count;
+        }
+        if (total != names.size() 
+                || fromList.getValidFileNames().size() != fromList.getCount(ValidationResult.VALID)) {
+            throw new AssertionError("Bulk counts do not add up: " + fromList.getCounts());
+        }
+        System.out.println("✓ Parallel bulk validation matches single validation " + fromList.getCounts());
+    }
+
+    /**
+     * Tests the one-pass sanitizer against the original regex version
+     */
+    public void testSanitizer(int cases, long seed) {
+        System.out.println("\n=== Testing Sanitizer ===");
+
+        String[] names = {
+            null, "", "  ", "...", "a", " .a. ", "a<b>c", "..a..\u2028", "a.\u2028", "a. \u2029",
+            "\u0085", ". \u0085", "x".repeat(300), "<" + "x".repeat(300) + ">"
+        };
+        for (String name : names) {
+            checkSanitized(name);
+        }
+
+        Random random = new Random(seed);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < cases; i++) {
+            name.setLength(0);
+            int length = random.nextInt(50) == 0 ? 250 + random.nextInt(12) : random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                name.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            checkSanitized(name.toString());
+        }
+        System.out.println("✓ Sanitizer matches the original on " + (names.length + cases) + " names");
+    }
+
+    /**
+     * Tests unique suggestions when many names collide on the same stem
+     */
+    public void testSuggestions() {
+        System.out.println("\n=== Testing Name Suggestions ===");
+
+        main.FileNameSuggester suggester = new main.FileNameSuggester(validator,
+            java.util.Set.of("report.txt", "report-1.txt", "notes"));
+
+        String first = suggester.suggest("report.txt");
+        String second = suggester.suggest(" report.txt.");
+        if (!first.equals("report-2.txt") || !second.equals("report-3.txt")) {
+            throw new AssertionError("Unexpected suggestions: " + first + ", " + second);
+        }
+        if (!suggester.suggest("<new>").equals("_new_.txt")) {
+            throw new AssertionError("Free name not suggested as-is");
+        }
+
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 20_000; i++) {
+            if (!seen.add(suggester.suggest("  data:set.csv "))) {
+                throw new AssertionError("Duplicate suggestion after " + i + " names");
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (!seen.contains("data_set.csv") || !seen.contains("data_set-19999.csv")) {
+            throw new AssertionError("Suffixes not assigned in order");
+        }
+        System.out.println("✓ 20000 colliding names got unique suggestions in " + millis + " ms");
+    }
+
+    private void checkSanitized(String name) {
+        String expected = legacySanitize(name);
+        String actual = validator.sanitizeFileName(name);
+        if (!actual.equals(expected)) {
+            throw new AssertionError("Sanitizer disagrees on " + describe(name) + 
+                ": expected " + describe(expected) + ", got " + describe(actual));
+        }
+    }
+
+    private void checkPosition(String name, int expected) {
+        int actual = validator.findViolation(name);
+        if (actual != expected) {
+            throw new AssertionError("Wrong position for " + describe(name) + 
+                ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private void check(String name) {
+        ValidationResult expected = legacyValidate(name);
+        ValidationResult actual = validator.validateFileName(name);
+        // Checked explicitly so the test does not depend on -ea
+        if (actual != expected) {
+            throw new AssertionError("Validator disagrees on " + describe(name) + 
+                ": expected " + expected + ", got " + actual);
+        }
+    }
+
+    private static String describe(String name) {
+        if (name == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : name.toCharArray()) {
+            if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    public static void main(String[] args) {
+        int cases = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        InputValidatorTest tester = new InputValidatorTest();
+        try {
+            tester.testKnownNames();
+            tester.testRandomNames(cases, seed);
+            tester.testViolationPositions();
+            tester.testBulkValidation(seed);
+            tester.testSanitizer(cases, seed);
+            tester.testSuggestions();
+
+            System.out.println("\n========================================");
+            System.out.println("    ALL TESTS PASSED SUCCESSFULLY! ✓");
+            System.out.println("========================================");
+        } catch (AssertionError e) {
+            System.err.println("\n✗ TEST FAILED: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}